@@ -2,8 +2,10 @@ package controller;
 
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 import model.Event;
+import model.IPlannerListener;
 import model.PlannerSystem;
 import model.User;
 import view.MainSystemFrame;
@@ -20,28 +22,64 @@ public class PlannerController implements IPlannerController {
   /**
    * Constructs a PlannerController with the given model and view.
    * This controller listens for events from the view and updates the model accordingly.
+   * It also listens for changes to the model and hands each one to the view on the event
+   * dispatch thread, so the view only updates the events that changed.
    *
    * @param model the planner system model
    * @param view  the main system frame view
    */
   public PlannerController(PlannerSystem model, MainSystemFrame view) {
     this.view = view;
+    // The model calls its listeners with the changed schedules locked, so the view is
+    // told about each change later, on the event dispatch thread
+    model.addPlannerListener(new IPlannerListener() {
+      @Override
+      public void eventAdded(User user, Event event) {
+        SwingUtilities.invokeLater(() -> view.eventAdded(user.getId(), event));
+      }
+
+      @Override
+      public void eventRemoved(User user, Event event) {
+        SwingUtilities.invokeLater(() -> view.eventRemoved(user.getId(), event.getId()));
+      }
+
+      @Override
+      public void eventModified(User user, Event originalEvent, Event updatedEvent) {
+        SwingUtilities.invokeLater(() -> view.eventModified(user.getId(), updatedEvent));
+      }
+    });
     this.view.setListener(new IPlannerViewListener() {
       @Override
       public void onEventCreate(Event event, String userId) {
         model.addEventToUserSchedule(userId, event);
-        view.updateSchedule(model.getEvents());
       }
 
       @Override
       public void onScheduleLoad(String filePath, User user) {
         try {
           model.uploadSchedule(filePath, user);
-          view.updateSchedule(model.getEvents());
         } catch (Exception e) {
           JOptionPane.showMessageDialog(null, "Error loading schedule: " + e.getMessage());
         }
       }
+
+      @Override
+      public void onEventRemove(long eventId, String userId) {
+        try {
+          model.removeEvent(model.getUser(userId), eventId);
+        } catch (Exception e) {
+          view.showError("Error removing event: " + e.getMessage());
+        }
+      }
+
+      @Override
+      public void onEventModify(long eventId, Event updatedEvent, String userId) {
+        try {
+          model.modifyEvent(model.getUser(userId), eventId, updatedEvent);
+        } catch (Exception e) {
+          view.showError("Error modifying event: " + e.getMessage());
+        }
+      }
     });
   }
 
@@ -0,0 +1,242 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This class represents the parts shared by every schedule implementation.
+ * It checks the events that are added and keeps the schedule's occupancy bitmap up to date,
+ * so the subclasses only have to store and look up the events.
+ * Every method takes the schedule's read or write lock, so a schedule can be used from many
+ * threads, and reading different schedules never contends. The subclasses do not need to do
+ * any locking of their own.
+ * The list of events is built once after each change and then shared by every reader, and
+ * listeners are told about every change.
+ * The subclasses also find events by ID, so an event can be found or removed by its ID.
+ * An event whose ID is already on the schedule is not added again.
+ */
+public abstract class AbstractSchedule implements ISchedule {
+  private final OccupancyBitmap occupancy;
+  private final ReentrantReadWriteLock lock;
+  private final List<IScheduleListener> listeners;
+  private volatile List<Event> published;
+  private volatile long version;
+
+  /**
+   * Constructs a new schedule with a free occupancy bitmap.
+   */
+  protected AbstractSchedule() {
+    this.occupancy = new OccupancyBitmap();
+    this.lock = new ReentrantReadWriteLock();
+    this.listeners = new CopyOnWriteArrayList<>();
+  }
+
+  @Override
+  public final void addEvent(Event event) {
+    if (event == null || event.getStartTime() == null || event.getEndTime() == null) {
+      throw new IllegalArgumentException("Event must have a start and end time.");
+    }
+    lock.writeLock().lock();
+    try {
+      if (find(event.getId()) == null && store(event)) {
+        occupancy.markBusy(event.getStartTime(), event.getEndTime());
+        changed();
+        for (IScheduleListener listener : listeners) {
+          listener.eventAdded(this, event);
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public final boolean removeEvent(Event event) {
+    if (event == null) {
+      return false;
+    }
+    return removeEvent(event.getId()) != null;
+  }
+
+  @Override
+  public final Event removeEvent(long eventId) {
+    lock.writeLock().lock();
+    try {
+      Event event = find(eventId);
+      if (event == null || !discard(event)) {
+        return null;
+      }
+      occupancy.refresh(event.getStartTime(), event.getEndTime(), this);
+      changed();
+      for (IScheduleListener listener : listeners) {
+        listener.eventRemoved(this, event);
+      }
+      return event;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public final Event getEvent(long eventId) {
+    lock.readLock().lock();
+    try {
+      return find(eventId);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public final List<Event> getEvents() {
+    List<Event> events = published;
+    if (events != null) {
+      return events;
+    }
+    lock.readLock().lock();
+    try {
+      events = published;
+      if (events == null) {
+        events = Collections.unmodifiableList(allEvents());
+        published = events;
+      }
+      return events;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public final List<Event> eventsBetween(LocalDateTime from, LocalDateTime to) {
+    lock.readLock().lock();
+    try {
+      return startingBetween(from, to);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public final boolean hasEventConflict(Event event) {
+    return !isAvailable(event.getStartTime(), event.getEndTime());
+  }
+
+  @Override
+  public final boolean isAvailable(LocalDateTime startSearch, LocalDateTime endSearchTime) {
+    lock.readLock().lock();
+    try {
+      return !anyOverlapping(startSearch, endSearchTime);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public final List<Event> getOverlappingEvents(LocalDateTime start, LocalDateTime end) {
+    lock.readLock().lock();
+    try {
+      return overlapping(start, end);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public OccupancyBitmap getOccupancy() {
+    return occupancy;
+  }
+
+  @Override
+  public ReadWriteLock getLock() {
+    return lock;
+  }
+
+  @Override
+  public long getVersion() {
+    return version;
+  }
+
+  @Override
+  public void addListener(IScheduleListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null.");
+    }
+    listeners.add(listener);
+  }
+
+  @Override
+  public void removeListener(IScheduleListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Called with the write lock held after every change. The published list of events is
+   * dropped so the next reader builds a new one.
+   */
+  private void changed() {
+    published = null;
+    version++;
+  }
+
+  /**
+   * Stores an event that has a start and end time in the schedule.
+   *
+   * @param event the event to store
+   * @return true if the event was stored, false if it was already there
+   */
+  protected abstract boolean store(Event event);
+
+  /**
+   * Removes an event from the schedule's storage.
+   *
+   * @param event the event to remove
+   * @return true if the event was in the schedule
+   */
+  protected abstract boolean discard(Event event);
+
+  /**
+   * Gets the stored event with the given ID.
+   *
+   * @param eventId the ID of the event
+   * @return the event, or null if it is not stored
+   */
+  protected abstract Event find(long eventId);
+
+  /**
+   * Gets every stored event, ordered by start time.
+   *
+   * @return a new list of the events
+   */
+  protected abstract List<Event> allEvents();
+
+  /**
+   * Gets the stored events that start in the range [from, to), ordered by start time.
+   *
+   * @param from the start of the range, inclusive
+   * @param to   the end of the range, exclusive
+   * @return a new list of the events
+   */
+  protected abstract List<Event> startingBetween(LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Gets the stored events that start before the end and end after the start.
+   *
+   * @param start the start of the time range
+   * @param end   the end of the time range
+   * @return a new list of the events
+   */
+  protected abstract List<Event> overlapping(LocalDateTime start, LocalDateTime end);
+
+  /**
+   * Checks if any stored event starts before the end and ends after the start.
+   *
+   * @param start the start of the time range
+   * @param end   the end of the time range
+   * @return true if an event overlaps the range
+   */
+  protected abstract boolean anyOverlapping(LocalDateTime start, LocalDateTime end);
+}
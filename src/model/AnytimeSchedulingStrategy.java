@@ -9,14 +9,36 @@ import java.time.LocalDateTime;
  * Allows all invitees and the host to be present
  */
 public class AnytimeSchedulingStrategy implements ISchedulingStrategy {
+  private final int stepMinutes;
+
+  /**
+   * Constructs the strategy so that it tries start times 30 minutes apart.
+   */
+  public AnytimeSchedulingStrategy() {
+    this(SearchingStrategy.DEFAULT_STEP_MINUTES);
+  }
+
+  /**
+   * Constructs the strategy so that it tries start times the given number of minutes apart.
+   * A step of 1 finds the earliest free minute.
+   *
+   * @param stepMinutes the distance in minutes between the start times that are tried
+   * @throws IllegalArgumentException if the step is not positive
+   */
+  public AnytimeSchedulingStrategy(int stepMinutes) {
+    if (stepMinutes <= 0) {
+      throw new IllegalArgumentException("The step must be positive.");
+    }
+    this.stepMinutes = stepMinutes;
+  }
 
   @Override
   public void scheduleEvent(Event event, User host, IReadOnlyModel plannerSystem) {
-    Schedule hostSchedule = host.getSchedule();
     LocalDateTime startSearch = LocalDateTime.now().with(DayOfWeek.SUNDAY)
-            .withHour(0).withMinute(0);
+            .withHour(0).withMinute(0).withSecond(0).withNano(0);
     LocalDateTime endSearch = startSearch.plusDays(6)
             .withHour(23).withMinute(59);
-    SearchingStrategy.search(event, plannerSystem, hostSchedule, startSearch, endSearch);
+    SearchingStrategy.search(event, plannerSystem, host, startSearch, endSearch,
+            stepMinutes);
   }
 }
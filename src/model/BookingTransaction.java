@@ -0,0 +1,138 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * This class represents the booking of one event on the schedules of several users as a
+ * single step, so that two bookings running at the same time can never both take the same
+ * free time.
+ * The free slot is searched for while holding only the read locks of the schedules, so many
+ * bookings can search at once. The write locks are then taken just long enough to check that
+ * the slot is still free and to add the event. If a schedule's version has changed since the
+ * search and the slot was taken in the meantime, the search is tried again. After a few
+ * failed tries the booking gives up on being optimistic and searches while holding the write
+ * locks, so it always finishes.
+ */
+final class BookingTransaction {
+  /**
+   * How many times the slot is searched for under read locks before the write locks are held
+   * for the whole search.
+   */
+  static final int OPTIMISTIC_ATTEMPTS = 3;
+
+  private final IReadOnlyModel model;
+  private final List<User> participants;
+  private final List<ISchedule> schedules;
+  private int attempts;
+
+  /**
+   * Constructs a booking for the given users.
+   *
+   * @param model        the model the users belong to, which records the changes
+   * @param participants the host and the invitees, each with their own schedule
+   */
+  BookingTransaction(IReadOnlyModel model, List<User> participants) {
+    this.model = model;
+    this.participants = new ArrayList<>(participants);
+    this.schedules = new ArrayList<>(participants.size());
+    for (User participant : participants) {
+      schedules.add(participant.getSchedule());
+    }
+  }
+
+  /**
+   * Finds the earliest time in the window when every participant is free and adds the event
+   * to every schedule at that time.
+   *
+   * @param event       the event to book, which is given the start time that was found
+   * @param startSearch the start of the window
+   * @param endSearch   the end of the window
+   * @param stepMinutes the distance in minutes between the start times that are tried
+   * @return true if the event was booked, false if there is no free time in the window
+   */
+  boolean book(Event event, LocalDateTime startSearch, LocalDateTime endSearch,
+               int stepMinutes) {
+    long minutes = event.getDuration();
+    for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+      attempts++;
+      long[] versions = new long[schedules.size()];
+      LocalDateTime start;
+      List<Lock> locks = ScheduleLocks.lockForReading(participants);
+      try {
+        for (int i = 0; i < versions.length; i++) {
+          versions[i] = schedules.get(i).getVersion();
+        }
+        start = FreeSlotFinder.findEarliestSlot(schedules, startSearch, endSearch, minutes,
+                stepMinutes);
+      } finally {
+        ScheduleLocks.unlock(locks);
+      }
+      if (start == null) {
+        return false;
+      }
+      locks = ScheduleLocks.lock(participants);
+      try {
+        if (stillFree(versions, start, start.plusMinutes(minutes))) {
+          commit(event, start);
+          return true;
+        }
+      } finally {
+        ScheduleLocks.unlock(locks);
+      }
+    }
+
+    // Other bookings keep taking the slot, so search while nobody else can book
+    attempts++;
+    List<Lock> locks = ScheduleLocks.lock(participants);
+    try {
+      LocalDateTime start = FreeSlotFinder.findEarliestSlot(schedules, startSearch, endSearch,
+              minutes, stepMinutes);
+      if (start == null) {
+        return false;
+      }
+      commit(event, start);
+      return true;
+    } finally {
+      ScheduleLocks.unlock(locks);
+    }
+  }
+
+  /**
+   * Gets how many times the slot was searched for, which is more than one when other
+   * bookings took the slot first.
+   *
+   * @return the number of searches
+   */
+  int getAttempts() {
+    return attempts;
+  }
+
+  /**
+   * Checks, with the write locks held, that no schedule got an event in the slot since the
+   * versions were read. Only the schedules that changed have to be looked at.
+   */
+  private boolean stillFree(long[] versions, LocalDateTime start, LocalDateTime end) {
+    for (int i = 0; i < versions.length; i++) {
+      ISchedule schedule = schedules.get(i);
+      if (schedule.getVersion() != versions[i] && !schedule.isAvailable(start, end)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void commit(Event event, LocalDateTime start) {
+    event.setTime(start);
+    for (User participant : participants) {
+      // Users of the model are changed through it, so the change is recorded in its journal
+      if (model.getUser(participant.getId()) == participant) {
+        model.addEventToUserSchedule(participant.getId(), event);
+      } else {
+        participant.getSchedule().addEvent(event);
+      }
+    }
+  }
+}
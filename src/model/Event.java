@@ -2,25 +2,44 @@ package model;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The class for an event.
  * An event has a name, start time, end time, location, and participants, and invitees.
  * The start and end times are in LocalDateTime format.
+ * Every event has a unique ID, which the model uses to find the one shared copy of an event
+ * that is on several users' schedules. Two events are equal when they have the same ID.
+ * To keep millions of events small, an event stores its times and duration as primitives,
+ * the times as minutes since 1970-01-01T00:00, and its name, location, host and invitee ids
+ * as references to the copies kept by the shared SymbolTable, so equal strings are stored
+ * once. The invitees are an array of those references. The getters turn the fields back into
+ * the usual objects.
+ * A time that is not on a whole minute is kept as a LocalDateTime instead.
  */
 public class Event implements IEvent {
+  private static final AtomicLong NEXT_ID = new AtomicLong(1);
+  private static final int NO_TIME = Integer.MIN_VALUE;
+  private static final int NO_DURATION = -1;
+
+  private long id;
   private String name;
-  private LocalDateTime startTime;
-  private LocalDateTime endTime;
+  private int startMinute;
+  private int endMinute;
+  private LocalDateTime exactStart;
+  private LocalDateTime exactEnd;
   private String location;
   private boolean isOnline;
 
-  private List<String> invitees;
+  private String[] invitees;
 
   private String hostId;
 
-  private Duration durationMins;
+  private int durationMins;
 
 
   /**
@@ -36,13 +55,15 @@ public class Event implements IEvent {
 
   public Event(String name, LocalDateTime startTime, LocalDateTime endTime,
                String location, boolean isOnline, List<String> invitees, String hostId) {
-    this.name = name;
-    this.startTime = startTime;
-    this.endTime = endTime;
-    this.location = location;
+    setName(name);
+    setStartTime(startTime);
+    setEndTime(endTime);
+    setLocation(location);
     this.isOnline = isOnline;
-    this.invitees = invitees;
-    this.hostId = hostId;
+    setInvitees(invitees);
+    this.hostId = SymbolTable.SHARED.intern(hostId);
+    this.durationMins = NO_DURATION;
+    this.id = NEXT_ID.getAndIncrement();
   }
 
   /**
@@ -56,17 +77,20 @@ public class Event implements IEvent {
    */
   public Event(String name, Duration duration,
                String location, boolean isOnline, List<String> invitees) {
-    this.name = name;
-    this.durationMins = duration;
-    this.location = location;
+    setName(name);
+    setStartTime(null);
+    setEndTime(null);
+    setDuration(duration);
+    setLocation(location);
     this.isOnline = isOnline;
-    this.invitees = invitees;
+    setInvitees(invitees);
+    this.hostId = null;
+    this.id = NEXT_ID.getAndIncrement();
   }
 
   @Override
   public boolean checkForConflict(Event otherEvent) {
-    return (this.startTime.isBefore(otherEvent.getEndTime())
-            && this.endTime.isAfter(otherEvent.getStartTime()));
+    return conflictsWith(otherEvent);
   }
 
   @Override
@@ -76,27 +100,29 @@ public class Event implements IEvent {
 
   @Override
   public void setName(String name) {
-    this.name = name;
+    this.name = SymbolTable.SHARED.intern(name);
   }
 
   @Override
   public LocalDateTime getStartTime() {
-    return startTime;
+    return exactStart != null ? exactStart : toTime(startMinute);
   }
 
   @Override
   public void setStartTime(LocalDateTime startTime) {
-    this.startTime = startTime;
+    this.startMinute = toMinute(startTime);
+    this.exactStart = startMinute == NO_TIME ? startTime : null;
   }
 
   @Override
   public LocalDateTime getEndTime() {
-    return endTime;
+    return exactEnd != null ? exactEnd : toTime(endMinute);
   }
 
   @Override
   public void setEndTime(LocalDateTime endTime) {
-    this.endTime = endTime;
+    this.endMinute = toMinute(endTime);
+    this.exactEnd = endMinute == NO_TIME ? endTime : null;
   }
 
   @Override
@@ -106,7 +132,7 @@ public class Event implements IEvent {
 
   @Override
   public void setLocation(String location) {
-    this.location = location;
+    this.location = SymbolTable.SHARED.intern(location);
   }
 
   @Override
@@ -119,45 +145,72 @@ public class Event implements IEvent {
     isOnline = online;
   }
 
+  /**
+   * Gets the invitees of the event. The list is a read-only view of the invitees when this
+   * was called, and does not change if the invitees are set again.
+   *
+   * @return the invitees of the event, or null if it has none
+   */
   @Override
   public List<String> getInvitees() {
-    return invitees;
+    String[] ids = invitees;
+    return ids == null ? null : Collections.unmodifiableList(Arrays.asList(ids));
   }
 
   @Override
   public void setInvitees(List<String> invitees) {
-    this.invitees = invitees;
+    if (invitees == null) {
+      this.invitees = null;
+      return;
+    }
+    String[] ids = new String[invitees.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = SymbolTable.SHARED.intern(invitees.get(i));
+    }
+    this.invitees = ids;
   }
 
   @Override
   public boolean conflictsWith(Event event) {
-    return this.startTime.isBefore(event.getEndTime())
-            && this.endTime.isAfter(event.getStartTime());
+    if (exactStart == null && exactEnd == null
+            && event.exactStart == null && event.exactEnd == null) {
+      // Both events are on whole minutes, so the minutes can be compared directly
+      return startMinute < event.endMinute && endMinute > event.startMinute;
+    }
+    return getStartTime().isBefore(event.getEndTime())
+            && getEndTime().isAfter(event.getStartTime());
   }
 
   @Override
   public LocalDateTime getStart() {
-    return startTime;
+    return getStartTime();
   }
 
   @Override
   public LocalDateTime getEnd() {
-    return endTime;
+    return getEndTime();
   }
 
   @Override
   public long getDuration() {
-    return durationMins.toMinutes();
+    if (durationMins == NO_DURATION) {
+      throw new IllegalStateException("The event has no duration.");
+    }
+    return durationMins;
   }
 
   public void setDuration(Duration duration) {
-    this.durationMins = duration;
+    try {
+      this.durationMins = duration == null ? NO_DURATION : Math.toIntExact(duration.toMinutes());
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("The duration is too long: " + duration + ".");
+    }
   }
 
   @Override
   public void setTime(LocalDateTime startSearch) {
-    this.startTime = startSearch;
-    this.endTime = startSearch.plusMinutes(getDuration());
+    setStartTime(startSearch);
+    setEndTime(startSearch.plusMinutes(getDuration()));
   }
 
   @Override
@@ -165,16 +218,92 @@ public class Event implements IEvent {
     return hostId;
   }
 
+  @Override
+  public long getId() {
+    return id;
+  }
+
+  /**
+   * Gives the event an ID, for an event that is read back from a file or that replaces
+   * another event. New events will get larger IDs than this one.
+   *
+   * @param id the ID
+   */
+  void assignId(long id) {
+    this.id = id;
+    reserveIdsThrough(id);
+  }
+
+  /**
+   * Makes a copy of the event, with the same ID and other invitees, to take the place of the
+   * event on the schedules that hold it.
+   *
+   * @param invitees the invitees of the copy
+   * @return the copy
+   */
+  Event withInvitees(List<String> invitees) {
+    Event copy = new Event(getName(), getStartTime(), getEndTime(), getLocation(), isOnline,
+            invitees, getHostId());
+    copy.durationMins = durationMins;
+    copy.id = id;
+    return copy;
+  }
+
+  /**
+   * Makes sure new events get IDs larger than the given one, for events that are stored
+   * somewhere and not yet read back.
+   *
+   * @param id the largest ID in use
+   */
+  static void reserveIdsThrough(long id) {
+    NEXT_ID.accumulateAndGet(id + 1, Math::max);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof Event)) {
+      return false;
+    }
+    return id == ((Event) other).id;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(id);
+  }
+
   @Override
   public String toString() {
     return
-            " name = '" + name + '\'' +
-                    ", startTime = " + startTime +
-                    ", endTime = " + endTime +
-                    ", location = " + location + '\'' +
+            " name = '" + getName() + '\'' +
+                    ", startTime = " + getStartTime() +
+                    ", endTime = " + getEndTime() +
+                    ", location = " + getLocation() + '\'' +
                     ", isOnline = " + isOnline +
-                    ", invitees = " + invitees +
-                    ", hostId = " + hostId;
+                    ", invitees = " + getInvitees() +
+                    ", hostId = " + getHostId();
+
+  }
+
+  /**
+   * Gets the minutes since 1970-01-01T00:00 of a time, or NO_TIME if the time is null, is not
+   * on a whole minute, or does not fit in an int.
+   */
+  private static int toMinute(LocalDateTime time) {
+    if (time == null || time.getSecond() != 0 || time.getNano() != 0) {
+      return NO_TIME;
+    }
+    long minute = time.toEpochSecond(ZoneOffset.UTC) / 60;
+    if (minute <= NO_TIME || minute > Integer.MAX_VALUE) {
+      return NO_TIME;
+    }
+    return (int) minute;
+  }
 
+  private static LocalDateTime toTime(int minute) {
+    return minute == NO_TIME ? null : LocalDateTime.ofEpochSecond(minute * 60L, 0, ZoneOffset.UTC);
   }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the registry of every event on a schedule in the planner, by ID.
+ * An event that is on several schedules is stored once: every schedule holds the same
+ * instance, and the registry knows which schedules hold it, so the event can be changed for
+ * every participant in one step. It is kept up to date by listening to every schedule.
+ * When schedules are imported, an event that is equal in every field to one that is already
+ * registered is replaced by the registered one, so a meeting listed in several users' files
+ * becomes a single shared event.
+ */
+final class EventRegistry implements IScheduleListener {
+  private final Map<Long, Entry> entries;
+  private final Map<String, Event> byContent;
+
+  /**
+   * Constructs an empty registry.
+   */
+  EventRegistry() {
+    this.entries = new HashMap<>();
+    this.byContent = new HashMap<>();
+  }
+
+  @Override
+  public synchronized void eventAdded(ISchedule schedule, Event event) {
+    Entry entry = entries.get(event.getId());
+    if (entry == null) {
+      entry = new Entry(event, contentKey(event));
+      entries.put(event.getId(), entry);
+      byContent.putIfAbsent(entry.key, event);
+    }
+    entry.holders.add(schedule);
+  }
+
+  @Override
+  public synchronized void eventRemoved(ISchedule schedule, Event event) {
+    Entry entry = entries.get(event.getId());
+    if (entry == null || !removeHolder(entry, schedule) || !entry.holders.isEmpty()) {
+      return;
+    }
+    entries.remove(event.getId());
+    byContent.remove(entry.key, entry.event);
+  }
+
+  /**
+   * Gets the event with the given ID.
+   *
+   * @param id the ID of the event
+   * @return the event, or null if no schedule holds it
+   */
+  synchronized Event get(long id) {
+    Entry entry = entries.get(id);
+    return entry == null ? null : entry.event;
+  }
+
+  /**
+   * Gets the schedules that hold the event with the given ID.
+   *
+   * @param id the ID of the event
+   * @return a new list of the schedules, empty if no schedule holds it
+   */
+  synchronized List<ISchedule> holders(long id) {
+    Entry entry = entries.get(id);
+    return entry == null ? new ArrayList<>() : new ArrayList<>(entry.holders);
+  }
+
+  /**
+   * Gets the registered event that is equal in every field to the given one, so an imported
+   * event can be shared instead of stored again. The event itself is returned if there is
+   * no such event, or if the schedule it is for already holds it.
+   *
+   * @param event    the imported event
+   * @param schedule the schedule the event will be added to
+   * @return the event to add to the schedule
+   */
+  synchronized Event canonical(Event event, ISchedule schedule) {
+    Event existing = byContent.get(contentKey(event));
+    if (existing == null) {
+      return event;
+    }
+    Entry entry = entries.get(existing.getId());
+    for (ISchedule holder : entry.holders) {
+      if (holder == schedule) {
+        return event;
+      }
+    }
+    return existing;
+  }
+
+  private static boolean removeHolder(Entry entry, ISchedule schedule) {
+    for (int i = 0; i < entry.holders.size(); i++) {
+      if (entry.holders.get(i) == schedule) {
+        entry.holders.remove(i);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String contentKey(Event event) {
+    return event.getName() + '\u0000' + event.getLocation() + '\u0000' + event.getStartTime()
+            + '\u0000' + event.getEndTime() + '\u0000' + event.isOnline() + '\u0000'
+            + event.getHostId() + '\u0000' + event.getInvitees();
+  }
+
+  /**
+   * A registered event, the schedules that hold it, and the key of its content when it was
+   * registered.
+   */
+  private static class Entry {
+    private final Event event;
+    private final String key;
+    private final List<ISchedule> holders;
+
+    Entry(Event event, String key) {
+      this.event = event;
+      this.key = key;
+      this.holders = new ArrayList<>(2);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class represents the FreeSlotFinder.
+ * This class finds the earliest free time that several schedules have in common.
+ * It collects the busy events of every schedule inside the search window, sorts them by
+ * start time, and sweeps over them once, so a search costs O(k log k) for k busy events
+ * instead of checking every schedule at every possible start time.
+ * When the window starts on a 5 minute boundary and the duration and step are positive whole
+ * numbers of 5 minutes, the schedules' occupancy bitmaps give the exact answer, so they are
+ * combined a word at a time instead.
+ */
+public class FreeSlotFinder {
+
+  /**
+   * Finds the earliest start time at which all the schedules are free for the duration.
+   * Candidate start times are the window start plus a multiple of the step, and a candidate
+   * must be before the end of the window, the same as the stepping search used before.
+   *
+   * @param schedules       the schedules that must all be free
+   * @param windowStart     the earliest start time to consider
+   * @param windowEnd       the start time must be before this time
+   * @param durationMinutes the length of the free slot in minutes
+   * @param stepMinutes     the distance in minutes between candidate start times
+   * @return the earliest free start time, or null if there is none in the window
+   * @throws IllegalArgumentException if the step is not positive or the duration is negative
+   */
+  public static LocalDateTime findEarliestSlot(List<? extends ISchedule> schedules,
+                                               LocalDateTime windowStart,
+                                               LocalDateTime windowEnd,
+                                               long durationMinutes, long stepMinutes) {
+    if (stepMinutes <= 0 || durationMinutes < 0) {
+      throw new IllegalArgumentException("Invalid duration or step.");
+    }
+    if (fitsSlots(windowStart, durationMinutes, stepMinutes)) {
+      return findWithBitmaps(schedules, windowStart, windowEnd, durationMinutes, stepMinutes);
+    }
+    List<Event> busy = new ArrayList<>();
+    LocalDateTime lastEnd = windowEnd.plusMinutes(durationMinutes);
+    for (ISchedule schedule : schedules) {
+      busy.addAll(schedule.getOverlappingEvents(windowStart, lastEnd));
+    }
+    busy.sort(Comparator.comparing(Event::getStartTime));
+
+    LocalDateTime candidate = windowStart;
+    for (Event event : busy) {
+      if (!candidate.isBefore(windowEnd)) {
+        return null;
+      }
+      if (!event.getStartTime().isBefore(candidate.plusMinutes(durationMinutes))) {
+        // Busy times are sorted, so nothing later can overlap the candidate either
+        break;
+      }
+      if (event.getEndTime().isAfter(candidate)) {
+        candidate = alignToStep(event.getEndTime(), windowStart, stepMinutes);
+      }
+    }
+    return candidate.isBefore(windowEnd) ? candidate : null;
+  }
+
+  private static boolean fitsSlots(LocalDateTime windowStart, long durationMinutes,
+                                   long stepMinutes) {
+    int slot = OccupancyBitmap.SLOT_MINUTES;
+    return durationMinutes > 0 && durationMinutes % slot == 0 && stepMinutes % slot == 0
+            && OccupancyBitmap.timeOf(OccupancyBitmap.slotContaining(windowStart))
+            .equals(windowStart);
+  }
+
+  private static LocalDateTime findWithBitmaps(List<? extends ISchedule> schedules,
+                                               LocalDateTime windowStart,
+                                               LocalDateTime windowEnd,
+                                               long durationMinutes, long stepMinutes) {
+    List<OccupancyBitmap> bitmaps = new ArrayList<>();
+    for (ISchedule schedule : schedules) {
+      bitmaps.add(schedule.getOccupancy());
+    }
+    int slot = OccupancyBitmap.SLOT_MINUTES;
+    long found = OccupancyBitmap.findFreeRun(bitmaps,
+            OccupancyBitmap.slotContaining(windowStart),
+            OccupancyBitmap.slotAtOrAfter(windowEnd),
+            durationMinutes / slot, stepMinutes / slot);
+    return found < 0 ? null : OccupancyBitmap.timeOf(found);
+  }
+
+  private static LocalDateTime alignToStep(LocalDateTime time, LocalDateTime windowStart,
+                                           long stepMinutes) {
+    long stepNanos = Duration.ofMinutes(stepMinutes).toNanos();
+    long offsetNanos = Duration.between(windowStart, time).toNanos();
+    long steps = (offsetNanos + stepNanos - 1) / stepNanos;
+    return windowStart.plusMinutes(steps * stepMinutes);
+  }
+}
@@ -144,4 +144,12 @@ public interface IEvent {
    * @return the host of the event
    */
   String getHostId();
+
+  /**
+   * Gets the ID of the event. Every event gets a new ID when it is constructed, and the ID
+   * stays the same when the event is saved and read back, or modified through the model.
+   *
+   * @return the ID of the event
+   */
+  long getId();
 }
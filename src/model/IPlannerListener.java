@@ -0,0 +1,38 @@
+package model;
+
+/**
+ * This interface represents a listener that is told about every change to the events of the
+ * users of a planner, one event at a time, so a view can update just what changed instead
+ * of reading every event again.
+ * The listener is called on the thread that made the change while the changed schedules are
+ * locked, so it must be quick, for example by handing the change to the event dispatch
+ * thread, and must not change the planner.
+ */
+public interface IPlannerListener {
+
+  /**
+   * Called after an event was added to the schedule of a user.
+   *
+   * @param user  the user whose schedule changed
+   * @param event the added event
+   */
+  void eventAdded(User user, Event event);
+
+  /**
+   * Called after an event was removed from the schedule of a user.
+   *
+   * @param user  the user whose schedule changed
+   * @param event the removed event
+   */
+  void eventRemoved(User user, Event event);
+
+  /**
+   * Called after an event on the schedule of a user was replaced by its updated version,
+   * which has the same ID. It is called once for every user that holds the event.
+   *
+   * @param user          the user whose schedule changed
+   * @param originalEvent the event before the change
+   * @param updatedEvent  the event after the change
+   */
+  void eventModified(User user, Event originalEvent, Event updatedEvent);
+}
@@ -1,7 +1,9 @@
 package model;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class represents the model for the planner system.
@@ -23,6 +25,32 @@ public interface IPlannerSystemModel extends IReadOnlyModel {
    */
   boolean uploadSchedule(String xmlFilePath, User user);
 
+  /**
+   * Upload an XML file representing a single user's schedule, one event at a time.
+   * Events that cannot be read are reported to the listener and skipped, and the rest of
+   * the file is still uploaded.
+   *
+   * @param xmlFilePath the path to the XML file
+   * @param user        the user to upload the schedule for
+   * @param listener    the listener told about each event, error, and progress, or null
+   * @return true if the schedule was uploaded successfully, false if the file is not valid XML
+   * @throws IllegalArgumentException if the user is null or the XML file path is invalid
+   * @throws IllegalStateException    if there is an error reading the XML file
+   */
+  boolean uploadSchedule(String xmlFilePath, User user, IScheduleImportListener listener);
+
+  /**
+   * Load the schedules of many users at once.
+   * The files are parsed in parallel on a bounded number of threads, and the events are then
+   * added to each user's schedule. Users that are not in the system yet are added to it.
+   * A file that fails does not stop the others from loading.
+   *
+   * @param files the XML file to load for each user
+   * @return a result for every file, in the order of the map
+   * @throws IllegalArgumentException if the map is null
+   */
+  List<ScheduleLoadResult> loadSchedules(Map<User, Path> files);
+
   /**
    * Save each user’s schedule to an XML file.
    *
@@ -34,6 +62,16 @@ public interface IPlannerSystemModel extends IReadOnlyModel {
    */
   boolean saveSchedule(String xmlFilePath, User user);
 
+  /**
+   * Save every user and their schedule to a binary snapshot file.
+   * A PlannerSystem can be started from the snapshot much faster than from XML files.
+   *
+   * @param file the snapshot file to write
+   * @return true if the snapshot was saved successfully, false otherwise
+   * @throws IllegalArgumentException if the path is null
+   */
+  boolean saveSnapshot(Path file);
+
   /**
    * Select one of the users to display their schedule.
    *
@@ -56,6 +94,8 @@ public interface IPlannerSystemModel extends IReadOnlyModel {
 
   /**
    * Modify an event for a user.
+   * The event is replaced on the schedule of every user that has it, and the updated event
+   * takes over the ID of the original event.
    *
    * @param user          the user to modify the event for
    * @param originalEvent the original event to modify
@@ -69,6 +109,20 @@ public interface IPlannerSystemModel extends IReadOnlyModel {
    */
   boolean modifyEvent(User user, Event originalEvent, Event updatedEvent);
 
+  /**
+   * Modify the event with the given ID on a user's schedule, so the caller does not need to
+   * hold on to the original event.
+   *
+   * @param user         the user to modify the event for
+   * @param eventId      the ID of the event to modify
+   * @param updatedEvent the updated event
+   * @return true if the event was modified, false if the user has no event with that ID
+   * @throws IllegalArgumentException if the user or updatedEvent is null
+   * @throws IllegalStateException    if the user does not exist in the system
+   * @throws IllegalStateException    if there is an error modifying the event
+   */
+  boolean modifyEvent(User user, long eventId, Event updatedEvent);
+
   /**
    * Remove an event for a user.
    *
@@ -81,6 +135,18 @@ public interface IPlannerSystemModel extends IReadOnlyModel {
    */
   boolean removeEvent(User user, Event event);
 
+  /**
+   * Remove the event with the given ID from a user's schedule.
+   *
+   * @param user    the user to remove the event for
+   * @param eventId the ID of the event to remove
+   * @return true if the event was removed, false if the user has no event with that ID
+   * @throws IllegalArgumentException if the user is null
+   * @throws IllegalStateException    if the user does not exist in the system
+   * @throws IllegalStateException    if there is an error removing the event
+   */
+  boolean removeEvent(User user, long eventId);
+
   /**
    * Have the program automatically schedule an event on some users’
    * schedules at some time if possible.
@@ -108,7 +174,7 @@ public interface IPlannerSystemModel extends IReadOnlyModel {
   /**
    * Get all users in the system as a list.
    *
-   * @return a list of all users in the system
+   * @return an unmodifiable list of all users in the system
    */
   List<User> getUsers();
 
@@ -119,6 +185,15 @@ public interface IPlannerSystemModel extends IReadOnlyModel {
    */
   void addUser(User user);
 
+  /**
+   * Remove a user from the system. The user is also removed from the invitees of every
+   * event the user was invited to, which is found through the invitee index.
+   *
+   * @param userId the id of the user to remove
+   * @return true if the user was removed, false if there is no such user
+   */
+  boolean removeUser(String userId);
+
   /**
    * Get a user from the system.
    *
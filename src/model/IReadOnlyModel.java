@@ -28,27 +28,59 @@ public interface IReadOnlyModel {
    */
   List<Event> seeEvents(User user, LocalDateTime time);
 
+  /**
+   * See the events occurring at each of many times for the given user, for example every
+   * point a tooltip may be asked for. This is faster than asking for each time on its own.
+   *
+   * @param user  the user to see the events for
+   * @param times the times to see the events for
+   * @return a list with the events occurring at each time, in the same order as the times
+   * @throws IllegalArgumentException if the user, the list or a time is null
+   * @throws IllegalStateException    if the user does not exist in the system
+   */
+  List<List<Event>> seeEvents(User user, List<LocalDateTime> times);
+
   /**
    * Get all users in the system as a list.
    *
-   * @return a list of all users in the system
+   * @return an unmodifiable list of all users in the system
    */
   List<User> getUsers();
 
   /**
    * Get all events in the system as a list.
    *
-   * @return a list of all events in the system
+   * @return an unmodifiable list of all events in the system
    */
   List<Event> getEvents();
 
   /**
-   * Gets user by name.
+   * Gets user by name. The name is looked up in an index, so this does not go through
+   * every user.
    *
-   * @return a list of all events in the system
+   * @param name the exact name of the user
+   * @return the first user added with that name, or null if there is none
    */
   User getUserByName(String name);
 
+  /**
+   * Gets user by name, ignoring upper and lower case.
+   *
+   * @param name the name of the user
+   * @return the first user added with that name, or null if there is none
+   */
+  User getUserByNameIgnoreCase(String name);
+
+  /**
+   * Finds the users whose name starts with the prefix, ignoring case, for example to suggest
+   * users while a name is typed.
+   *
+   * @param prefix the start of the name
+   * @param limit  the largest number of users to return
+   * @return a new list of at most limit users, ordered by name
+   */
+  List<User> findUsersByNamePrefix(String prefix, int limit);
+
   /**
    * Adds an event to a particular user's schedule.
    *
@@ -73,4 +105,45 @@ public interface IReadOnlyModel {
    * @return a list of events for the week starting from the given date
    */
   List<Event> getEventsForWeekStarting(User user, LocalDate startDate);
+
+  /**
+   * Gets an immutable snapshot of every user and their events. The same snapshot is
+   * returned until the model changes, so reading it costs nothing and needs no locking.
+   *
+   * @return the current snapshot of the model
+   */
+  ModelSnapshot getSnapshot();
+
+  /**
+   * Get the events a user is invited to, on any schedule, from an index that is kept up to
+   * date as events are added and removed.
+   *
+   * @param userId the id of the invited user
+   * @return a new list of the events, ordered by start time
+   */
+  List<Event> getEventsInvitedTo(String userId);
+
+  /**
+   * Get an event by its ID. An event that is on several users' schedules is stored once, so
+   * this is the same instance every participant has.
+   *
+   * @param eventId the ID of the event
+   * @return the event, or null if it is not on any schedule
+   */
+  Event getEvent(long eventId);
+
+  /**
+   * Starts telling the listener about every event that is added, removed or modified on
+   * the schedule of any user of the model.
+   *
+   * @param listener the listener
+   */
+  void addPlannerListener(IPlannerListener listener);
+
+  /**
+   * Stops telling the listener about changes.
+   *
+   * @param listener the listener
+   */
+  void removePlannerListener(IPlannerListener listener);
 }
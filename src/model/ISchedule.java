@@ -2,6 +2,7 @@ package model;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * This interface represents a schedule in the calendar system.
@@ -24,12 +25,39 @@ public interface ISchedule {
   public boolean removeEvent(Event event);
 
   /**
-   * Retrieves the current list of events in the Schedule.
+   * Removes the event with the given ID from the schedule.
    *
-   * @return A new list of the events currently in the Schedule.
+   * @param eventId the ID of the event to be removed
+   * @return the removed event, or null if the schedule has no event with that ID
+   */
+  public Event removeEvent(long eventId);
+
+  /**
+   * Gets the event with the given ID.
+   *
+   * @param eventId the ID of the event
+   * @return the event, or null if the schedule has no event with that ID
+   */
+  public Event getEvent(long eventId);
+
+  /**
+   * Retrieves the current list of events in the Schedule, ordered by start time.
+   * The list is unmodifiable and does not change when the schedule changes later, so it can
+   * be kept and read without locking. It is shared until the next change.
+   *
+   * @return an unmodifiable list of the events currently in the Schedule.
    */
   public List<Event> getEvents();
 
+  /**
+   * Retrieves the events that start within the given time range, ordered by start time.
+   *
+   * @param from the start of the range, inclusive
+   * @param to   the end of the range, exclusive
+   * @return a new list of the events starting in the range
+   */
+  public List<Event> eventsBetween(LocalDateTime from, LocalDateTime to);
+
   public boolean hasEventConflict(Event event);
 
   /**
@@ -42,4 +70,53 @@ public interface ISchedule {
 
   public boolean isAvailable(LocalDateTime startSearch, LocalDateTime endSearchTime);
 
+  /**
+   * Gets the events in the schedule that overlap the given time range.
+   * An event overlaps the range if it starts before the end and ends after the start.
+   *
+   * @param start the start of the time range
+   * @param end   the end of the time range
+   * @return a new list of the events that overlap the range
+   */
+  public List<Event> getOverlappingEvents(LocalDateTime start, LocalDateTime end);
+
+  /**
+   * Gets the occupancy bitmap of the schedule, which is updated as events are added and
+   * removed.
+   *
+   * @return the occupancy bitmap
+   */
+  public OccupancyBitmap getOccupancy();
+
+  /**
+   * Gets the lock that guards the schedule. Every method of the schedule takes it by itself.
+   * Hold the write lock to make several calls as one step, for example to check that a time
+   * is free and then add an event. The occupancy bitmap must only be read while holding
+   * the read or write lock.
+   *
+   * @return the read-write lock of the schedule
+   */
+  public ReadWriteLock getLock();
+
+  /**
+   * Gets the version of the schedule, which goes up with every change.
+   *
+   * @return the version
+   */
+  public long getVersion();
+
+  /**
+   * Adds a listener that is told about every change to the schedule.
+   *
+   * @param listener the listener to add
+   */
+  public void addListener(IScheduleListener listener);
+
+  /**
+   * Removes a listener that was added with addListener.
+   *
+   * @param listener the listener to remove
+   */
+  public void removeListener(IScheduleListener listener);
+
 }
@@ -0,0 +1,30 @@
+package model;
+
+/**
+ * This interface represents the listener for a schedule import.
+ * The reader calls it for every event it reads from the file, so the events can be used
+ * one at a time instead of keeping the whole file in memory.
+ */
+public interface IScheduleImportListener {
+  /**
+   * Called when an event was read successfully.
+   *
+   * @param event the event that was read
+   */
+  void onEvent(Event event);
+
+  /**
+   * Called when an event could not be read. The import continues with the next event.
+   *
+   * @param eventNumber the position of the event in the file, starting at 1
+   * @param message     a description of what is wrong with the event
+   */
+  void onEventError(int eventNumber, String message);
+
+  /**
+   * Called after every event element, whether it was read successfully or not.
+   *
+   * @param eventsRead the number of event elements read so far
+   */
+  void onProgress(int eventsRead);
+}
@@ -0,0 +1,25 @@
+package model;
+
+/**
+ * This interface represents a listener that is told about every change to a schedule.
+ * The listener is called while the schedule's write lock is held, so it must be quick and
+ * must not wait for other schedules.
+ */
+public interface IScheduleListener {
+
+  /**
+   * Called after an event was added to the schedule.
+   *
+   * @param schedule the schedule that changed
+   * @param event    the added event
+   */
+  void eventAdded(ISchedule schedule, Event event);
+
+  /**
+   * Called after an event was removed from the schedule.
+   *
+   * @param schedule the schedule that changed
+   * @param event    the removed event
+   */
+  void eventRemoved(ISchedule schedule, Event event);
+}
@@ -26,7 +26,7 @@ public interface IUser {
    *
    * @return the schedule of the user
    */
-  Schedule getSchedule();
+  ISchedule getSchedule();
 
   /**
    * Gets the events of the user.
@@ -0,0 +1,292 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents a schedule backed by an interval tree.
+ * The events are kept in a balanced (AVL) binary search tree ordered by start time,
+ * where every node also remembers the latest end time in its subtree.
+ * That lets conflict and availability checks skip whole subtrees, so overlap queries
+ * cost O(log n + k) and adding or removing an event costs O(log n).
+ * It can be used anywhere a Schedule is used, for example new User(id, name, new
+ * IntervalTreeSchedule()).
+ */
+public class IntervalTreeSchedule extends AbstractSchedule {
+  private Node root;
+  private long nextSequence;
+  private final Map<Long, Node> nodes;
+
+  /**
+   * Constructs a new IntervalTreeSchedule with no events.
+   */
+  public IntervalTreeSchedule() {
+    this.root = null;
+    this.nextSequence = 0;
+    this.nodes = new HashMap<>();
+  }
+
+  @Override
+  protected boolean store(Event event) {
+    if (nodes.containsKey(event.getId())) {
+      return false;
+    }
+    Node node = new Node(event, nextSequence++);
+    root = insert(root, node);
+    nodes.put(event.getId(), node);
+    return true;
+  }
+
+  @Override
+  protected Event find(long eventId) {
+    Node node = nodes.get(eventId);
+    return node == null ? null : node.event;
+  }
+
+  @Override
+  protected boolean discard(Event event) {
+    Node node = nodes.remove(event.getId());
+    if (node == null) {
+      return false;
+    }
+    root = delete(root, node);
+    return true;
+  }
+
+  @Override
+  protected List<Event> allEvents() {
+    List<Event> events = new ArrayList<>(nodes.size());
+    collect(root, events);
+    return events;
+  }
+
+  @Override
+  protected List<Event> startingBetween(LocalDateTime from, LocalDateTime to) {
+    List<Event> result = new ArrayList<>();
+    collectStartingBetween(root, from, to, result);
+    return result;
+  }
+
+  @Override
+  protected boolean anyOverlapping(LocalDateTime start, LocalDateTime end) {
+    return anyOverlap(root, start, end);
+  }
+
+  @Override
+  protected List<Event> overlapping(LocalDateTime start, LocalDateTime end) {
+    List<Event> overlapping = new ArrayList<>();
+    collectOverlapping(root, start, end, overlapping);
+    return overlapping;
+  }
+
+  /**
+   * Gets the number of events in this schedule.
+   *
+   * @return the number of events
+   */
+  public int size() {
+    getLock().readLock().lock();
+    try {
+      return nodes.size();
+    } finally {
+      getLock().readLock().unlock();
+    }
+  }
+
+  private static boolean anyOverlap(Node node, LocalDateTime start, LocalDateTime end) {
+    while (node != null) {
+      if (!node.maxEnd.isAfter(start)) {
+        return false;
+      }
+      if (node.overlaps(start, end)) {
+        return true;
+      }
+      // Only go right when nothing on the left can reach past start
+      if (node.left != null && node.left.maxEnd.isAfter(start)) {
+        node = node.left;
+      } else if (node.start.isBefore(end)) {
+        node = node.right;
+      } else {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private static void collectOverlapping(Node node, LocalDateTime start, LocalDateTime end,
+                                         List<Event> result) {
+    if (node == null || !node.maxEnd.isAfter(start)) {
+      return;
+    }
+    collectOverlapping(node.left, start, end, result);
+    if (node.start.isBefore(end)) {
+      if (node.overlaps(start, end)) {
+        result.add(node.event);
+      }
+      collectOverlapping(node.right, start, end, result);
+    }
+  }
+
+  private static void collectStartingBetween(Node node, LocalDateTime from, LocalDateTime to,
+                                             List<Event> result) {
+    if (node == null) {
+      return;
+    }
+    boolean afterFrom = !node.start.isBefore(from);
+    boolean beforeTo = node.start.isBefore(to);
+    if (afterFrom) {
+      collectStartingBetween(node.left, from, to, result);
+    }
+    if (afterFrom && beforeTo) {
+      result.add(node.event);
+    }
+    if (beforeTo) {
+      collectStartingBetween(node.right, from, to, result);
+    }
+  }
+
+  private static void collect(Node node, List<Event> result) {
+    if (node == null) {
+      return;
+    }
+    collect(node.left, result);
+    result.add(node.event);
+    collect(node.right, result);
+  }
+
+  private static Node insert(Node node, Node added) {
+    if (node == null) {
+      return added;
+    }
+    if (added.compareTo(node) < 0) {
+      node.left = insert(node.left, added);
+    } else {
+      node.right = insert(node.right, added);
+    }
+    return rebalance(node);
+  }
+
+  private static Node delete(Node node, Node removed) {
+    if (node == null) {
+      return null;
+    }
+    int cmp = removed.compareTo(node);
+    if (cmp < 0) {
+      node.left = delete(node.left, removed);
+    } else if (cmp > 0) {
+      node.right = delete(node.right, removed);
+    } else {
+      if (node.left == null) {
+        return node.right;
+      }
+      if (node.right == null) {
+        return node.left;
+      }
+      Node successor = node.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      successor.right = deleteMin(node.right);
+      successor.left = node.left;
+      node = successor;
+    }
+    return rebalance(node);
+  }
+
+  private static Node deleteMin(Node node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    node.left = deleteMin(node.left);
+    return rebalance(node);
+  }
+
+  private static Node rebalance(Node node) {
+    node.update();
+    int balance = height(node.left) - height(node.right);
+    if (balance > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node.left = rotateLeft(node.left);
+      }
+      return rotateRight(node);
+    }
+    if (balance < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node.right = rotateRight(node.right);
+      }
+      return rotateLeft(node);
+    }
+    return node;
+  }
+
+  private static Node rotateRight(Node node) {
+    Node pivot = node.left;
+    node.left = pivot.right;
+    pivot.right = node;
+    node.update();
+    pivot.update();
+    return pivot;
+  }
+
+  private static Node rotateLeft(Node node) {
+    Node pivot = node.right;
+    node.right = pivot.left;
+    pivot.left = node;
+    node.update();
+    pivot.update();
+    return pivot;
+  }
+
+  private static int height(Node node) {
+    return node == null ? 0 : node.height;
+  }
+
+  /**
+   * A node of the interval tree.
+   * The start and end times are copied when the event is added, so the tree stays
+   * ordered even if the event object is changed afterwards.
+   */
+  private static class Node implements Comparable<Node> {
+    private final Event event;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final long sequence;
+    private LocalDateTime maxEnd;
+    private int height;
+    private Node left;
+    private Node right;
+
+    Node(Event event, long sequence) {
+      this.event = event;
+      this.start = event.getStartTime();
+      this.end = event.getEndTime();
+      this.sequence = sequence;
+      this.maxEnd = end;
+      this.height = 1;
+    }
+
+    boolean overlaps(LocalDateTime from, LocalDateTime to) {
+      return start.isBefore(to) && end.isAfter(from);
+    }
+
+    void update() {
+      height = 1 + Math.max(IntervalTreeSchedule.height(left), IntervalTreeSchedule.height(right));
+      maxEnd = end;
+      if (left != null && left.maxEnd.isAfter(maxEnd)) {
+        maxEnd = left.maxEnd;
+      }
+      if (right != null && right.maxEnd.isAfter(maxEnd)) {
+        maxEnd = right.maxEnd;
+      }
+    }
+
+    @Override
+    public int compareTo(Node other) {
+      int cmp = start.compareTo(other.start);
+      return cmp != 0 ? cmp : Long.compare(sequence, other.sequence);
+    }
+  }
+}
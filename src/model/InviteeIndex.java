@@ -0,0 +1,104 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class represents an index from a user's ID to the events that user is invited to.
+ * It is kept up to date by listening to every schedule of the planner. An event that is on
+ * several schedules is counted once per schedule and stays in the index until it has been
+ * removed from all of them. The invitees of an event are remembered when it is first added,
+ * so the event is removed from the same users even if its list of invitees changed.
+ */
+final class InviteeIndex implements IScheduleListener {
+  private static final Comparator<Event> BY_START = new Comparator<Event>() {
+    @Override
+    public int compare(Event a, Event b) {
+      return a.getStartTime().compareTo(b.getStartTime());
+    }
+  };
+
+  private final Map<String, Set<Event>> eventsByInvitee;
+  private final Map<Event, Entry> entries;
+
+  /**
+   * Constructs an empty index.
+   */
+  InviteeIndex() {
+    this.eventsByInvitee = new HashMap<>();
+    this.entries = new HashMap<>();
+  }
+
+  @Override
+  public synchronized void eventAdded(ISchedule schedule, Event event) {
+    Entry entry = entries.get(event);
+    if (entry != null) {
+      entry.count++;
+      return;
+    }
+    List<String> invitees = event.getInvitees() == null
+            ? Collections.<String>emptyList() : new ArrayList<>(event.getInvitees());
+    entries.put(event, new Entry(invitees));
+    for (String invitee : invitees) {
+      eventsByInvitee.computeIfAbsent(invitee,
+              id -> new HashSet<>()).add(event);
+    }
+  }
+
+  @Override
+  public synchronized void eventRemoved(ISchedule schedule, Event event) {
+    Entry entry = entries.get(event);
+    if (entry == null || --entry.count > 0) {
+      return;
+    }
+    entries.remove(event);
+    for (String invitee : entry.invitees) {
+      unlink(invitee, event);
+    }
+  }
+
+  /**
+   * Gets the events the user is invited to, ordered by start time.
+   *
+   * @param userId the id of the user
+   * @return a new list of the events
+   */
+  synchronized List<Event> eventsInvitedTo(String userId) {
+    Set<Event> events = eventsByInvitee.get(userId);
+    if (events == null) {
+      return new ArrayList<>();
+    }
+    List<Event> result = new ArrayList<>(events);
+    result.sort(BY_START);
+    return result;
+  }
+
+  private void unlink(String invitee, Event event) {
+    Set<Event> events = eventsByInvitee.get(invitee);
+    if (events != null) {
+      events.remove(event);
+      if (events.isEmpty()) {
+        eventsByInvitee.remove(invitee);
+      }
+    }
+  }
+
+  /**
+   * How many schedules an event is on, and who it was indexed under.
+   */
+  private static class Entry {
+    private final List<String> invitees;
+    private int count;
+
+    Entry(List<String> invitees) {
+      this.invitees = invitees;
+      this.count = 1;
+    }
+  }
+}
@@ -10,15 +10,37 @@ import java.time.LocalDateTime;
  * Allows all invitees and the host to be present
  */
 public class LenientSchedulingStrategy implements ISchedulingStrategy {
+  private final int stepMinutes;
+
+  /**
+   * Constructs the strategy so that it tries start times 30 minutes apart.
+   */
+  public LenientSchedulingStrategy() {
+    this(SearchingStrategy.DEFAULT_STEP_MINUTES);
+  }
+
+  /**
+   * Constructs the strategy so that it tries start times the given number of minutes apart.
+   * A step of 1 finds the earliest free minute.
+   *
+   * @param stepMinutes the distance in minutes between the start times that are tried
+   * @throws IllegalArgumentException if the step is not positive
+   */
+  public LenientSchedulingStrategy(int stepMinutes) {
+    if (stepMinutes <= 0) {
+      throw new IllegalArgumentException("The step must be positive.");
+    }
+    this.stepMinutes = stepMinutes;
+  }
 
   @Override
   public void scheduleEvent(Event event, User user, IReadOnlyModel plannerSystem) {
-    Schedule userSchedule = user.getSchedule();
     LocalDateTime startSearch = LocalDateTime.now().with(DayOfWeek.MONDAY)
-            .withHour(9).withMinute(0);
+            .withHour(9).withMinute(0).withSecond(0).withNano(0);
     LocalDateTime endSearch = startSearch.plusDays(4)
             .withHour(17).withMinute(0);
 
-    SearchingStrategy.search(event, plannerSystem, userSchedule, startSearch, endSearch);
+    SearchingStrategy.search(event, plannerSystem, user, startSearch, endSearch,
+            stepMinutes);
   }
 }
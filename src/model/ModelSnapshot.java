@@ -0,0 +1,86 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents an immutable view of the whole planner at one moment.
+ * The model builds a new snapshot only after something has changed, and hands the same one
+ * to every reader until then, so the views can read it without copying or locking while the
+ * model keeps changing. The lists in a snapshot are unmodifiable and never change.
+ */
+public final class ModelSnapshot {
+  private final long version;
+  private final List<User> users;
+  private final Map<String, List<Event>> eventsByUser;
+  private volatile List<Event> allEvents;
+
+  /**
+   * Constructs a snapshot of the given users and the events on their schedules.
+   *
+   * @param version the version of the model the snapshot was taken at
+   * @param users   the users, in the order they should be listed
+   * @param events  the unmodifiable event list of each user, in the same order
+   */
+  ModelSnapshot(long version, List<User> users, List<List<Event>> events) {
+    this.version = version;
+    this.users = Collections.unmodifiableList(new ArrayList<>(users));
+    this.eventsByUser = new HashMap<>();
+    for (int i = 0; i < users.size(); i++) {
+      eventsByUser.put(users.get(i).getId(), events.get(i));
+    }
+  }
+
+  /**
+   * Gets the version of the model the snapshot was taken at. A later snapshot of the same
+   * model has a larger version if anything changed in between.
+   *
+   * @return the version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Gets the users of the planner.
+   *
+   * @return an unmodifiable list of the users
+   */
+  public List<User> getUsers() {
+    return users;
+  }
+
+  /**
+   * Gets the events on a user's schedule, ordered by start time.
+   *
+   * @param userId the id of the user
+   * @return an unmodifiable list of the events, empty if there is no such user
+   */
+  public List<Event> getEvents(String userId) {
+    List<Event> events = eventsByUser.get(userId);
+    return events == null ? Collections.<Event>emptyList() : events;
+  }
+
+  /**
+   * Gets the events of every user, one user after the other. An event on several schedules
+   * is listed once for each of them.
+   *
+   * @return an unmodifiable list of the events
+   */
+  public List<Event> getEvents() {
+    List<Event> events = allEvents;
+    if (events == null) {
+      // Two readers may both build the list, which is harmless because they are equal
+      List<Event> all = new ArrayList<>();
+      for (User user : users) {
+        all.addAll(eventsByUser.get(user.getId()));
+      }
+      events = Collections.unmodifiableList(all);
+      allEvents = events;
+    }
+    return events;
+  }
+}
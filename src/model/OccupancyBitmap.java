@@ -0,0 +1,182 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the OccupancyBitmap of a schedule.
+ * Time is split into 5 minute slots and every slot has one bit, which is set when some event
+ * of the schedule overlaps the slot. The bits are packed into longs, in blocks of 32 longs
+ * (2048 slots, about one week), and only the blocks that have busy slots are stored.
+ * The bitmaps of several schedules can be combined a word at a time to find common free time.
+ */
+public class OccupancyBitmap {
+  /**
+   * The length of one slot in minutes.
+   */
+  public static final int SLOT_MINUTES = 5;
+
+  private static final long SLOT_SECONDS = SLOT_MINUTES * 60L;
+  private static final int WORDS_PER_BLOCK = 32;
+
+  private final Map<Long, long[]> blocks;
+
+  /**
+   * Constructs a new OccupancyBitmap with every slot free.
+   */
+  public OccupancyBitmap() {
+    this.blocks = new HashMap<>();
+  }
+
+  /**
+   * Marks every slot that overlaps the given time range as busy.
+   *
+   * @param start the start of the busy time
+   * @param end   the end of the busy time
+   */
+  public void markBusy(LocalDateTime start, LocalDateTime end) {
+    setRange(slotContaining(start), slotAtOrAfter(end), true);
+  }
+
+  /**
+   * Recomputes the slots that overlap the given time range after an event was removed.
+   * The slots are cleared and then marked again for the events of the schedule that are
+   * still there, since a slot can be shared by more than one event.
+   *
+   * @param start    the start of the removed event
+   * @param end      the end of the removed event
+   * @param schedule the schedule the event was removed from
+   */
+  void refresh(LocalDateTime start, LocalDateTime end, ISchedule schedule) {
+    long from = slotContaining(start);
+    long to = slotAtOrAfter(end);
+    if (from >= to) {
+      return;
+    }
+    setRange(from, to, false);
+    for (Event event : schedule.getOverlappingEvents(timeOf(from), timeOf(to))) {
+      markBusy(event.getStartTime(), event.getEndTime());
+    }
+  }
+
+  /**
+   * Checks if the slot is busy.
+   *
+   * @param slot the slot number
+   * @return true if some event overlaps the slot
+   */
+  public boolean isBusy(long slot) {
+    return (word(Math.floorDiv(slot, 64)) & (1L << Math.floorMod(slot, 64))) != 0;
+  }
+
+  /**
+   * Gets the slot that contains the given time.
+   *
+   * @param time the time
+   * @return the number of the slot, counted from 1970-01-01T00:00
+   */
+  public static long slotContaining(LocalDateTime time) {
+    return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), SLOT_SECONDS);
+  }
+
+  /**
+   * Gets the first slot that starts at or after the given time.
+   *
+   * @param time the time
+   * @return the number of the slot, counted from 1970-01-01T00:00
+   */
+  public static long slotAtOrAfter(LocalDateTime time) {
+    long slot = slotContaining(time);
+    return timeOf(slot).equals(time) ? slot : slot + 1;
+  }
+
+  /**
+   * Gets the start time of a slot.
+   *
+   * @param slot the number of the slot
+   * @return the time the slot starts
+   */
+  public static LocalDateTime timeOf(long slot) {
+    return LocalDateTime.ofEpochSecond(slot * SLOT_SECONDS, 0, ZoneOffset.UTC);
+  }
+
+  /**
+   * Finds the first run of slots that are free in every bitmap.
+   * The run must start at the first slot plus a multiple of the step, and before the limit.
+   *
+   * @param bitmaps    the bitmaps that must all be free
+   * @param firstSlot  the first slot the run may start at
+   * @param limitSlot  the run must start before this slot
+   * @param runLength  the number of free slots needed
+   * @param stepSlots  the distance in slots between possible starts
+   * @return the first slot of the run, or -1 if there is no such run
+   */
+  public static long findFreeRun(List<OccupancyBitmap> bitmaps, long firstSlot, long limitSlot,
+                                 long runLength, long stepSlots) {
+    long position = firstSlot;
+    while (position < limitSlot) {
+      long free = nextSlot(bitmaps, position, limitSlot, false);
+      if (free < 0) {
+        return -1;
+      }
+      long candidate = firstSlot + (free - firstSlot + stepSlots - 1) / stepSlots * stepSlots;
+      if (candidate >= limitSlot) {
+        return -1;
+      }
+      long busy = nextSlot(bitmaps, candidate, candidate + runLength, true);
+      if (busy < 0) {
+        return candidate;
+      }
+      position = busy + 1;
+    }
+    return -1;
+  }
+
+  private static long nextSlot(List<OccupancyBitmap> bitmaps, long from, long limit,
+                               boolean busy) {
+    long wordIndex = Math.floorDiv(from, 64);
+    long mask = -1L << Math.floorMod(from, 64);
+    while (wordIndex * 64 < limit) {
+      long combined = 0;
+      for (OccupancyBitmap bitmap : bitmaps) {
+        combined |= bitmap.word(wordIndex);
+      }
+      long bits = (busy ? combined : ~combined) & mask;
+      if (bits != 0) {
+        long slot = wordIndex * 64 + Long.numberOfTrailingZeros(bits);
+        return slot < limit ? slot : -1;
+      }
+      wordIndex++;
+      mask = -1L;
+    }
+    return -1;
+  }
+
+  private long word(long wordIndex) {
+    long[] block = blocks.get(Math.floorDiv(wordIndex, WORDS_PER_BLOCK));
+    return block == null ? 0 : block[Math.floorMod(wordIndex, WORDS_PER_BLOCK)];
+  }
+
+  private void setRange(long from, long to, boolean busy) {
+    for (long slot = from; slot < to; ) {
+      long wordIndex = Math.floorDiv(slot, 64);
+      int bit = Math.floorMod(slot, 64);
+      int count = (int) Math.min(64 - bit, to - slot);
+      long mask = (count == 64 ? -1L : ((1L << count) - 1)) << bit;
+      long blockIndex = Math.floorDiv(wordIndex, WORDS_PER_BLOCK);
+      int offset = Math.floorMod(wordIndex, WORDS_PER_BLOCK);
+      if (busy) {
+        blocks.computeIfAbsent(blockIndex, b -> new long[WORDS_PER_BLOCK])[offset] |= mask;
+      } else {
+        long[] block = blocks.get(blockIndex);
+        if (block != null) {
+          block[offset] &= ~mask;
+        }
+      }
+      slot += count;
+    }
+  }
+}
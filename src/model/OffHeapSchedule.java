@@ -0,0 +1,632 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents a schedule that keeps its events outside of the Java heap.
+ * Every event is a fixed-width record in a direct ByteBuffer, sorted by start time: its ID,
+ * its start and end times in nanoseconds since 1970-01-01T00:00, the latest end time of the
+ * records so far, and its name, location, host and invitees as offsets into a string table
+ * that is kept in a second buffer. Each distinct string is stored once: it is found again
+ * through a hash index of the string table, an open addressing table of string offsets in a
+ * third direct buffer, which is rebuilt when the files are reopened. The heap holds none of
+ * the events, strings or index, so it does not grow with the number of events, and the
+ * garbage collector never has to trace the events.
+ * Event objects are built from the records when they are asked for: every query returns new
+ * objects, which are equal (by ID) to the events that were added.
+ * Range and overlap queries binary search the records. Adding or removing an event shifts the
+ * records after it, and finding an event by its ID alone scans the records, which both cost
+ * O(n). Calling getEvents builds every event, so large calendars should be read with
+ * eventsBetween or getOverlappingEvents instead.
+ * The buffers can be memory-mapped files, so the schedule is still there when the planner
+ * restarts: new OffHeapSchedule(path) stores the records in the file and the strings in a
+ * second file next to it, and reopens them if they exist.
+ * It can hold events between the years 1677 and 2262.
+ */
+public class OffHeapSchedule extends AbstractSchedule implements Closeable {
+  private static final int MAGIC = 0x504C4E4F;
+  private static final int STRINGS_MAGIC = 0x504C4E53;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 16;
+  private static final int COUNT = 8;
+
+  private static final int RECORD_SIZE = 56;
+  private static final int ID = 0;
+  private static final int START = 8;
+  private static final int END = 16;
+  private static final int MAX_END = 24;
+  private static final int NAME = 32;
+  private static final int LOCATION = 36;
+  private static final int HOST = 40;
+  private static final int INVITEES = 44;
+  private static final int ONLINE = 48;
+
+  private static final int NONE = -1;
+  private static final char INVITEE_END = '\u0000';
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  private static final int INITIAL_RECORDS = 256;
+  private static final int INITIAL_STRING_BYTES = 1 << 10;
+  private static final int INITIAL_INDEX_SLOTS = 1 << 8;
+  private static final int EMPTY_SLOT = 0;
+
+  private final Region records;
+  private final Region strings;
+  private Region index;
+  private int indexed;
+  private int count;
+  private int stringsEnd;
+
+  /**
+   * Constructs a new OffHeapSchedule with no events, in memory outside of the heap.
+   */
+  public OffHeapSchedule() {
+    this.records = new Region(HEADER_SIZE + INITIAL_RECORDS * RECORD_SIZE);
+    this.strings = new Region(HEADER_SIZE + INITIAL_STRING_BYTES);
+    this.index = new Region(INITIAL_INDEX_SLOTS * Integer.BYTES);
+    this.count = 0;
+    this.stringsEnd = HEADER_SIZE;
+    writeHeaders();
+  }
+
+  /**
+   * Constructs an OffHeapSchedule stored in a memory-mapped file, with its strings in the file
+   * of the same name ending in ".strings". If the files exist, their events are loaded.
+   *
+   * @param file the file of the records
+   * @throws IOException if the files cannot be opened or are not a schedule
+   */
+  public OffHeapSchedule(Path file) throws IOException {
+    Path stringsFile = Paths.get(file.toString() + ".strings");
+    this.records = new Region(file, HEADER_SIZE + INITIAL_RECORDS * RECORD_SIZE);
+    Region openedStrings;
+    try {
+      openedStrings = new Region(stringsFile, HEADER_SIZE + INITIAL_STRING_BYTES);
+    } catch (IOException e) {
+      records.close();
+      throw e;
+    }
+    this.strings = openedStrings;
+    this.index = new Region(INITIAL_INDEX_SLOTS * Integer.BYTES);
+    try {
+      if (records.existing == 0) {
+        this.count = 0;
+        this.stringsEnd = HEADER_SIZE;
+        writeHeaders();
+      } else {
+        load();
+      }
+    } catch (IOException | RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  @Override
+  protected boolean store(Event event) {
+    long start = key(event.getStartTime());
+    long end = key(event.getEndTime());
+    int name = intern(event.getName());
+    int location = intern(event.getLocation());
+    int host = intern(event.getHostId());
+    int invitees = intern(joinInvitees(event.getInvitees()));
+    records.ensure(HEADER_SIZE + (count + 1L) * RECORD_SIZE);
+    // Events with the same start stay in the order they were added
+    int index = firstStartAfter(start);
+    for (int i = count - 1; i >= index; i--) {
+      copy(i, i + 1);
+    }
+    ByteBuffer buffer = records.buffer;
+    int at = offset(index);
+    buffer.putLong(at + ID, event.getId());
+    buffer.putLong(at + START, start);
+    buffer.putLong(at + END, end);
+    buffer.putInt(at + NAME, name);
+    buffer.putInt(at + LOCATION, location);
+    buffer.putInt(at + HOST, host);
+    buffer.putInt(at + INVITEES, invitees);
+    buffer.putInt(at + ONLINE, event.isOnline() ? 1 : 0);
+    count++;
+    buffer.putInt(COUNT, count);
+    updateMaxEnds(index);
+    return true;
+  }
+
+  @Override
+  protected boolean discard(Event event) {
+    int index = indexOf(event);
+    if (index < 0) {
+      return false;
+    }
+    for (int i = index; i < count - 1; i++) {
+      copy(i + 1, i);
+    }
+    count--;
+    records.buffer.putInt(COUNT, count);
+    updateMaxEnds(index);
+    return true;
+  }
+
+  @Override
+  protected Event find(long eventId) {
+    for (int i = 0; i < count; i++) {
+      if (records.buffer.getLong(offset(i) + ID) == eventId) {
+        return materialize(i);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  protected List<Event> allEvents() {
+    List<Event> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      result.add(materialize(i));
+    }
+    return result;
+  }
+
+  @Override
+  protected List<Event> startingBetween(LocalDateTime from, LocalDateTime to) {
+    int first = firstStartAtOrAfter(queryKey(from));
+    int last = firstStartAtOrAfter(queryKey(to));
+    List<Event> result = new ArrayList<>(Math.max(0, last - first));
+    for (int i = first; i < last; i++) {
+      result.add(materialize(i));
+    }
+    return result;
+  }
+
+  @Override
+  protected boolean anyOverlapping(LocalDateTime start, LocalDateTime end) {
+    long from = queryKey(start);
+    int last = firstStartAtOrAfter(queryKey(end));
+    for (int i = firstEndingAfter(from); i < last; i++) {
+      if (end(i) > from) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  protected List<Event> overlapping(LocalDateTime start, LocalDateTime end) {
+    long from = queryKey(start);
+    int last = firstStartAtOrAfter(queryKey(end));
+    List<Event> result = new ArrayList<>();
+    for (int i = firstEndingAfter(from); i < last; i++) {
+      if (end(i) > from) {
+        result.add(materialize(i));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Gets the number of events in this schedule.
+   *
+   * @return the number of events
+   */
+  public int size() {
+    getLock().readLock().lock();
+    try {
+      return count;
+    } finally {
+      getLock().readLock().unlock();
+    }
+  }
+
+  /**
+   * Writes the changes to the files, if the schedule is stored in files.
+   */
+  public void flush() {
+    getLock().readLock().lock();
+    try {
+      records.force();
+      strings.force();
+    } finally {
+      getLock().readLock().unlock();
+    }
+  }
+
+  /**
+   * Writes the changes to the files and closes them. The schedule cannot be used after this.
+   *
+   * @throws IOException if the files cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    getLock().writeLock().lock();
+    try {
+      try {
+        records.close();
+      } finally {
+        strings.close();
+      }
+    } finally {
+      getLock().writeLock().unlock();
+    }
+  }
+
+  private void writeHeaders() {
+    records.buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(COUNT, count);
+    strings.buffer.putInt(0, STRINGS_MAGIC).putInt(4, VERSION).putInt(COUNT, stringsEnd);
+  }
+
+  /**
+   * Reads back the events of existing files: the strings are indexed again, the busy time
+   * is marked, and new events are kept from reusing the stored IDs.
+   */
+  private void load() throws IOException {
+    ByteBuffer buffer = records.buffer;
+    if (buffer.getInt(0) != MAGIC || strings.buffer.getInt(0) != STRINGS_MAGIC) {
+      throw new IOException("Not an off-heap schedule.");
+    }
+    if (buffer.getInt(4) != VERSION || strings.buffer.getInt(4) != VERSION) {
+      throw new IOException("Unsupported off-heap schedule version.");
+    }
+    count = buffer.getInt(COUNT);
+    stringsEnd = strings.buffer.getInt(COUNT);
+    for (int symbol = HEADER_SIZE; symbol < stringsEnd; ) {
+      int length = strings.buffer.getInt(symbol);
+      addToIndex(symbol, hash(strings.buffer, symbol + Integer.BYTES, length));
+      symbol += Integer.BYTES + length;
+    }
+    for (int i = 0; i < count; i++) {
+      getOccupancy().markBusy(time(start(i)), time(end(i)));
+      Event.reserveIdsThrough(buffer.getLong(offset(i) + ID));
+    }
+  }
+
+  private Event materialize(int index) {
+    ByteBuffer buffer = records.buffer;
+    int at = offset(index);
+    Event event = new Event(string(buffer.getInt(at + NAME)), time(buffer.getLong(at + START)),
+            time(buffer.getLong(at + END)), string(buffer.getInt(at + LOCATION)),
+            buffer.getInt(at + ONLINE) != 0, splitInvitees(string(buffer.getInt(at + INVITEES))),
+            string(buffer.getInt(at + HOST)));
+    event.assignId(buffer.getLong(at + ID));
+    return event;
+  }
+
+  /**
+   * Finds the index of the event's record, first where its start time says it should be, and
+   * then everywhere in case its start time was changed after it was added.
+   */
+  private int indexOf(Event event) {
+    LocalDateTime start = event.getStartTime();
+    if (start != null) {
+      long key = queryKey(start);
+      for (int i = firstStartAtOrAfter(key); i < count && start(i) == key; i++) {
+        if (records.buffer.getLong(offset(i) + ID) == event.getId()) {
+          return i;
+        }
+      }
+    }
+    for (int i = 0; i < count; i++) {
+      if (records.buffer.getLong(offset(i) + ID) == event.getId()) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int firstStartAtOrAfter(long key) {
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (start(mid) < key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private int firstStartAfter(long key) {
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (start(mid) <= key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Gets the index of the first record at which some record so far ends after the key.
+   * No record before it can overlap a range that starts at the key.
+   */
+  private int firstEndingAfter(long key) {
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (records.buffer.getLong(offset(mid) + MAX_END) <= key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private void updateMaxEnds(int from) {
+    ByteBuffer buffer = records.buffer;
+    long max = from == 0 ? Long.MIN_VALUE : buffer.getLong(offset(from - 1) + MAX_END);
+    for (int i = from; i < count; i++) {
+      max = Math.max(max, end(i));
+      buffer.putLong(offset(i) + MAX_END, max);
+    }
+  }
+
+  private void copy(int from, int to) {
+    ByteBuffer buffer = records.buffer;
+    int source = offset(from);
+    int target = offset(to);
+    for (int i = 0; i < RECORD_SIZE; i += Long.BYTES) {
+      buffer.putLong(target + i, buffer.getLong(source + i));
+    }
+  }
+
+  private long start(int index) {
+    return records.buffer.getLong(offset(index) + START);
+  }
+
+  private long end(int index) {
+    return records.buffer.getLong(offset(index) + END);
+  }
+
+  private static int offset(int index) {
+    return HEADER_SIZE + index * RECORD_SIZE;
+  }
+
+  /**
+   * Gets the offset of a string in the string table, adding it if it is new.
+   */
+  private int intern(String string) {
+    if (string == null) {
+      return NONE;
+    }
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    int hash = hash(ByteBuffer.wrap(bytes), 0, bytes.length);
+    int mask = slots() - 1;
+    for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+      int symbol = index.buffer.getInt(slot * Integer.BYTES);
+      if (symbol == EMPTY_SLOT) {
+        break;
+      }
+      if (sameBytes(symbol, bytes)) {
+        return symbol;
+      }
+    }
+    strings.ensure((long) stringsEnd + Integer.BYTES + bytes.length);
+    ByteBuffer target = strings.buffer.duplicate();
+    target.position(stringsEnd);
+    target.putInt(bytes.length).put(bytes);
+    int added = stringsEnd;
+    stringsEnd = target.position();
+    strings.buffer.putInt(COUNT, stringsEnd);
+    addToIndex(added, hash);
+    return added;
+  }
+
+  private int slots() {
+    return index.buffer.capacity() / Integer.BYTES;
+  }
+
+  /**
+   * Adds the offset of a string to the hash index, doubling the index first if it would be
+   * more than half full.
+   */
+  private void addToIndex(int symbol, int hash) {
+    if (2 * (indexed + 1) > slots()) {
+      if (slots() > Integer.MAX_VALUE / (2 * Integer.BYTES)) {
+        throw new IllegalStateException("The schedule is full.");
+      }
+      Region grown = new Region(2 * slots() * Integer.BYTES);
+      for (int slot = 0; slot < slots(); slot++) {
+        int stored = index.buffer.getInt(slot * Integer.BYTES);
+        if (stored != EMPTY_SLOT) {
+          putSlot(grown, stored, hash(strings.buffer, stored + Integer.BYTES,
+                  strings.buffer.getInt(stored)));
+        }
+      }
+      index = grown;
+    }
+    putSlot(index, symbol, hash);
+    indexed++;
+  }
+
+  /**
+   * Puts the offset of a string in the first free slot from its hash. Offsets are never
+   * EMPTY_SLOT, as the table starts after its header.
+   */
+  private static void putSlot(Region table, int symbol, int hash) {
+    int mask = table.buffer.capacity() / Integer.BYTES - 1;
+    int slot = hash & mask;
+    while (table.buffer.getInt(slot * Integer.BYTES) != EMPTY_SLOT) {
+      slot = (slot + 1) & mask;
+    }
+    table.buffer.putInt(slot * Integer.BYTES, symbol);
+  }
+
+  private boolean sameBytes(int symbol, byte[] bytes) {
+    ByteBuffer buffer = strings.buffer;
+    if (buffer.getInt(symbol) != bytes.length) {
+      return false;
+    }
+    int from = symbol + Integer.BYTES;
+    for (int i = 0; i < bytes.length; i++) {
+      if (buffer.get(from + i) != bytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Hashes the bytes of a string, mixing the bits so that the low bits pick spread out slots.
+   */
+  private static int hash(ByteBuffer buffer, int from, int length) {
+    int hash = 1;
+    for (int i = from; i < from + length; i++) {
+      hash = 31 * hash + buffer.get(i);
+    }
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+
+  private String string(int symbol) {
+    if (symbol == NONE) {
+      return null;
+    }
+    ByteBuffer source = strings.buffer.duplicate();
+    source.position(symbol);
+    byte[] bytes = new byte[source.getInt()];
+    source.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Joins the invitees into one string, each followed by INVITEE_END, so a list of invitees
+   * that many events share is stored once.
+   */
+  private static String joinInvitees(List<String> invitees) {
+    if (invitees == null) {
+      return null;
+    }
+    StringBuilder joined = new StringBuilder();
+    for (String invitee : invitees) {
+      joined.append(invitee).append(INVITEE_END);
+    }
+    return joined.toString();
+  }
+
+  private static List<String> splitInvitees(String joined) {
+    if (joined == null) {
+      return null;
+    }
+    List<String> invitees = new ArrayList<>();
+    int from = 0;
+    for (int i = 0; i < joined.length(); i++) {
+      if (joined.charAt(i) == INVITEE_END) {
+        invitees.add(joined.substring(from, i));
+        from = i + 1;
+      }
+    }
+    return invitees;
+  }
+
+  private static long key(LocalDateTime time) {
+    try {
+      return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC),
+              NANOS_PER_SECOND), time.getNano());
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("An OffHeapSchedule cannot hold an event at " + time
+              + ".");
+    }
+  }
+
+  /**
+   * Gets the key of a time to search for. Times out of range are clamped, which keeps them
+   * ordered the same way against every stored time.
+   */
+  private static long queryKey(LocalDateTime time) {
+    try {
+      return key(time);
+    } catch (IllegalArgumentException e) {
+      return time.getYear() < 1970 ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+  }
+
+  private static LocalDateTime time(long key) {
+    return LocalDateTime.ofEpochSecond(Math.floorDiv(key, NANOS_PER_SECOND),
+            (int) Math.floorMod(key, NANOS_PER_SECOND), ZoneOffset.UTC);
+  }
+
+  /**
+   * A buffer outside of the heap that grows when needed, either direct memory or a
+   * memory-mapped file.
+   */
+  private static class Region {
+    private final FileChannel channel;
+    private final long existing;
+    private ByteBuffer buffer;
+
+    Region(int size) {
+      this.channel = null;
+      this.existing = 0;
+      this.buffer = ByteBuffer.allocateDirect(size);
+    }
+
+    Region(Path file, int size) throws IOException {
+      this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+              StandardOpenOption.WRITE);
+      try {
+        this.existing = channel.size();
+        if (existing > Integer.MAX_VALUE) {
+          throw new IOException("The file is too large: " + file);
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, existing));
+      } catch (IOException | RuntimeException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    void ensure(long bytes) {
+      if (bytes <= buffer.capacity()) {
+        return;
+      }
+      long capacity = Math.max(bytes, 2L * buffer.capacity());
+      if (capacity > Integer.MAX_VALUE) {
+        throw new IllegalStateException("The schedule is full.");
+      }
+      if (channel == null) {
+        ByteBuffer grown = ByteBuffer.allocateDirect((int) capacity);
+        ByteBuffer old = buffer.duplicate();
+        old.clear();
+        grown.put(old);
+        grown.clear();
+        buffer = grown;
+        return;
+      }
+      try {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot grow the schedule file.", e);
+      }
+    }
+
+    void force() {
+      if (channel != null) {
+        ((MappedByteBuffer) buffer).force();
+      }
+    }
+
+    void close() throws IOException {
+      if (channel != null && channel.isOpen()) {
+        force();
+        channel.close();
+      }
+    }
+  }
+}
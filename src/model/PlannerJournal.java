@@ -0,0 +1,627 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * This class represents the PlannerJournal.
+ * This class is an append-only file of every change made to the planner (a user added or
+ * removed, an event added, removed or modified), so saving a change costs only the size of the
+ * change.
+ * A change is durable once the method that records it returns. Threads that record changes
+ * at the same time share one FileChannel.force: the first one writes and forces every waiting
+ * record, and the others wait for it instead of forcing the file again.
+ * On start up the planner is recovered from the last snapshot with the journal replayed on top.
+ * When the journal grows past a threshold it is compacted: a new snapshot is written and the
+ * records it contains are removed from the journal.
+ * Events are recorded with their IDs, so replay finds the event a record is about, and shares
+ * an event between schedules, by ID.
+ * Replaying a record twice leaves the planner the same, so a crash between writing the
+ * snapshot and shortening the journal loses nothing, and records written while the snapshot
+ * is taken can simply be kept.
+ */
+public class PlannerJournal implements Closeable {
+  private static final int MAGIC = 0x504C4E4A;
+  private static final int VERSION = 2;
+  private static final int HEADER_SIZE = 2 * Integer.BYTES;
+  private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+  private static final long DEFAULT_COMPACT_BYTES = 4L << 20;
+
+  private static final byte ADD_USER = 1;
+  private static final byte ADD_EVENT = 2;
+  private static final byte REMOVE_EVENT = 3;
+  private static final byte MODIFY_EVENT = 4;
+  private static final byte REMOVE_USER = 5;
+
+  private final Path journalFile;
+  private final Path snapshotFile;
+  private final long compactBytes;
+  private final Object lock;
+  private FileChannel channel;
+  private final ByteArrayOutputStream pending;
+  private long appended;
+  private long durable;
+  private long failedThrough;
+  private boolean writing;
+  private boolean compacting;
+
+  /**
+   * Constructs a journal that is compacted once it is larger than 4 MB.
+   *
+   * @param journalFile  the journal file
+   * @param snapshotFile the snapshot file the journal is compacted into
+   */
+  public PlannerJournal(Path journalFile, Path snapshotFile) {
+    this(journalFile, snapshotFile, DEFAULT_COMPACT_BYTES);
+  }
+
+  /**
+   * Constructs a journal that is compacted once it is larger than the given size.
+   *
+   * @param journalFile  the journal file
+   * @param snapshotFile the snapshot file the journal is compacted into
+   * @param compactBytes the size in bytes after which the journal is compacted
+   * @throws IllegalArgumentException if a file is null or the size is not positive
+   */
+  public PlannerJournal(Path journalFile, Path snapshotFile, long compactBytes) {
+    if (journalFile == null || snapshotFile == null) {
+      throw new IllegalArgumentException("Journal and snapshot files cannot be null.");
+    }
+    if (compactBytes <= 0) {
+      throw new IllegalArgumentException("The compaction size must be positive.");
+    }
+    this.journalFile = journalFile;
+    this.snapshotFile = snapshotFile;
+    this.compactBytes = compactBytes;
+    this.lock = new Object();
+    this.pending = new ByteArrayOutputStream();
+  }
+
+  /**
+   * Checks whether there is anything to recover, that is a snapshot or a journal file.
+   *
+   * @return true if a snapshot or journal file exists
+   */
+  public boolean exists() {
+    return Files.exists(snapshotFile) || Files.exists(journalFile);
+  }
+
+  /**
+   * Reads the snapshot and replays the journal on top of it, then opens the journal for
+   * new records. A record that was only partly written when the planner stopped is dropped.
+   * This must be called before any change is recorded.
+   *
+   * @return the recovered users with their schedules
+   * @throws IOException if the snapshot or journal cannot be read
+   */
+  public List<User> recover() throws IOException {
+    Map<String, User> users = new LinkedHashMap<>();
+    if (Files.exists(snapshotFile)) {
+      for (User user : PlannerSnapshot.read(snapshotFile, false)) {
+        users.put(user.getId(), user);
+      }
+    }
+    FileChannel opened = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      long end = replay(opened, users);
+      opened.truncate(end);
+      opened.position(end);
+      if (end == 0) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        writeFully(opened, header);
+        opened.force(true);
+      }
+    } catch (IOException | RuntimeException e) {
+      opened.close();
+      throw e;
+    }
+    synchronized (lock) {
+      channel = opened;
+    }
+    return new ArrayList<>(users.values());
+  }
+
+  /**
+   * Records that a user was added.
+   *
+   * @param user the added user
+   * @throws IOException if the journal cannot be written
+   */
+  public void userAdded(User user) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeByte(ADD_USER);
+    writeString(out, user.getId());
+    writeString(out, user.getName());
+    append(bytes.toByteArray());
+  }
+
+  /**
+   * Records that a user was removed, which also removes the user from the invitees of
+   * every event.
+   *
+   * @param userId the id of the removed user
+   * @throws IOException if the journal cannot be written
+   */
+  public void userRemoved(String userId) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeByte(REMOVE_USER);
+    writeString(out, userId);
+    append(bytes.toByteArray());
+  }
+
+  /**
+   * Records that an event was added to a user's schedule.
+   *
+   * @param userId the id of the user
+   * @param event  the added event
+   * @throws IOException if the journal cannot be written
+   */
+  public void eventAdded(String userId, Event event) throws IOException {
+    append(eventRecord(ADD_EVENT, userId, event));
+  }
+
+  /**
+   * Records that several events were added to a user's schedule, with a single force.
+   *
+   * @param userId the id of the user
+   * @param events the added events
+   * @throws IOException if the journal cannot be written
+   */
+  public void eventsAdded(String userId, List<Event> events) throws IOException {
+    if (events.isEmpty()) {
+      return;
+    }
+    byte[][] records = new byte[events.size()][];
+    for (int i = 0; i < records.length; i++) {
+      records[i] = eventRecord(ADD_EVENT, userId, events.get(i));
+    }
+    append(records);
+  }
+
+  /**
+   * Records that an event was removed from a user's schedule.
+   *
+   * @param userId the id of the user
+   * @param event  the removed event
+   * @throws IOException if the journal cannot be written
+   */
+  public void eventRemoved(String userId, Event event) throws IOException {
+    append(eventRecord(REMOVE_EVENT, userId, event));
+  }
+
+  /**
+   * Records that an event on a user's schedule was replaced by another one.
+   * Both halves are in one record, so the change is never replayed half way.
+   *
+   * @param userId   the id of the user
+   * @param original the removed event
+   * @param updated  the added event
+   * @throws IOException if the journal cannot be written
+   */
+  public void eventModified(String userId, Event original, Event updated) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeByte(MODIFY_EVENT);
+    writeString(out, userId);
+    writeEvent(out, original);
+    writeEvent(out, updated);
+    append(bytes.toByteArray());
+  }
+
+  /**
+   * Checks whether the journal has grown enough to be compacted.
+   *
+   * @return true if the journal is larger than the compaction size
+   */
+  public boolean needsCompaction() {
+    synchronized (lock) {
+      try {
+        return channel != null && !compacting && channel.size() > compactBytes;
+      } catch (IOException e) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Writes the users to the snapshot file and removes the records it contains from the
+   * journal. The other threads can keep recording changes while the snapshot is written.
+   * Nothing happens if another thread is already compacting.
+   *
+   * @param users all the users of the planner
+   * @throws IOException if the snapshot or the journal cannot be written
+   */
+  public void compact(Collection<User> users) throws IOException {
+    synchronized (lock) {
+      checkOpen();
+      if (compacting) {
+        return;
+      }
+      compacting = true;
+    }
+    try {
+      // Every record before the mark was made in memory before the snapshot is taken
+      long mark = flush();
+      PlannerSnapshot.write(users, snapshotFile);
+      synchronized (lock) {
+        awaitIdle();
+        writing = true;
+      }
+      try {
+        dropBefore(mark);
+      } finally {
+        synchronized (lock) {
+          writing = false;
+          lock.notifyAll();
+        }
+      }
+    } finally {
+      synchronized (lock) {
+        compacting = false;
+      }
+    }
+  }
+
+  /**
+   * Makes every record so far durable and returns the position after them.
+   */
+  private long flush() throws IOException {
+    long ticket;
+    synchronized (lock) {
+      ticket = appended;
+    }
+    commit(ticket);
+    synchronized (lock) {
+      awaitIdle();
+      return channel.position();
+    }
+  }
+
+  /**
+   * Replaces the journal with one that only has the records from the given position on.
+   * The new journal is written to a temporary file first and then moved over the old one.
+   */
+  private void dropBefore(long mark) throws IOException {
+    Path absolute = journalFile.toAbsolutePath();
+    Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(),
+            ".tmp");
+    try {
+      try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        writeFully(out, header);
+        long end = channel.size();
+        long position = mark;
+        while (position < end) {
+          position += channel.transferTo(position, end - position, out);
+        }
+        out.force(true);
+      }
+      try {
+        Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+    FileChannel reopened = FileChannel.open(absolute, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    reopened.position(reopened.size());
+    channel.close();
+    channel = reopened;
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (lock) {
+      if (channel == null) {
+        return;
+      }
+      awaitIdle();
+      channel.close();
+      channel = null;
+    }
+  }
+
+  private void append(byte[]... records) throws IOException {
+    long ticket;
+    synchronized (lock) {
+      checkOpen();
+      for (byte[] record : records) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        DataOutputStream out = new DataOutputStream(pending);
+        out.writeInt(record.length);
+        out.writeInt((int) crc.getValue());
+        out.write(record);
+      }
+      ticket = ++appended;
+    }
+    commit(ticket);
+  }
+
+  /**
+   * Waits until the given record is durable, writing it and every other waiting record
+   * if no other thread is writing already.
+   */
+  private void commit(long ticket) throws IOException {
+    byte[] batch;
+    long batchEnd;
+    synchronized (lock) {
+      while (durable < ticket && writing) {
+        waitForLock();
+      }
+      if (ticket <= failedThrough) {
+        throw new IOException("The journal could not be written.");
+      }
+      if (durable >= ticket) {
+        return;
+      }
+      checkOpen();
+      writing = true;
+      batch = pending.toByteArray();
+      batchEnd = appended;
+      pending.reset();
+    }
+    IOException failure = null;
+    try {
+      writeFully(channel, ByteBuffer.wrap(batch));
+      channel.force(false);
+    } catch (IOException e) {
+      failure = e;
+    }
+    synchronized (lock) {
+      if (failure == null) {
+        durable = batchEnd;
+      } else {
+        failedThrough = batchEnd;
+      }
+      writing = false;
+      lock.notifyAll();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void awaitIdle() throws IOException {
+    while (writing) {
+      waitForLock();
+    }
+  }
+
+  private void waitForLock() throws IOException {
+    try {
+      lock.wait();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while writing the journal.");
+    }
+  }
+
+  private void checkOpen() {
+    if (channel == null) {
+      throw new IllegalStateException("The journal is not open, call recover first.");
+    }
+  }
+
+  /**
+   * Applies every complete record in the journal to the users.
+   * Returns the position after the last complete record.
+   */
+  private static long replay(FileChannel channel, Map<String, User> users) throws IOException {
+    long size = channel.size();
+    if (size < HEADER_SIZE) {
+      return 0;
+    }
+    ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    if (in.getInt() != MAGIC) {
+      throw new IOException("Not a planner journal.");
+    }
+    int version = in.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported journal version " + version + ".");
+    }
+    Map<Long, Event> byId = new HashMap<>();
+    for (User user : users.values()) {
+      for (Event event : user.getSchedule().getEvents()) {
+        byId.put(event.getId(), event);
+      }
+    }
+    while (in.remaining() >= RECORD_HEADER_SIZE) {
+      int start = in.position();
+      int length = in.getInt();
+      int checksum = in.getInt();
+      if (length < 0 || length > in.remaining()) {
+        return start;
+      }
+      byte[] record = new byte[length];
+      in.get(record);
+      CRC32 crc = new CRC32();
+      crc.update(record);
+      if ((int) crc.getValue() != checksum) {
+        return start;
+      }
+      apply(record, users, byId);
+    }
+    return in.position();
+  }
+
+  private static void apply(byte[] record, Map<String, User> users, Map<Long, Event> byId)
+          throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+    byte type = in.readByte();
+    String userId = readString(in);
+    if (type == ADD_USER) {
+      users.putIfAbsent(userId, new User(userId, readString(in)));
+      return;
+    }
+    if (type == REMOVE_USER) {
+      users.remove(userId);
+      for (User user : users.values()) {
+        for (Event event : user.getSchedule().getEvents()) {
+          if (event.getInvitees() != null && event.getInvitees().contains(userId)) {
+            List<String> invitees = new ArrayList<>(event.getInvitees());
+            invitees.removeAll(Collections.singleton(userId));
+            event.setInvitees(invitees);
+          }
+        }
+      }
+      return;
+    }
+    User user = users.get(userId);
+    if (user == null) {
+      throw new IOException("The journal refers to an unknown user " + userId + ".");
+    }
+    switch (type) {
+      case ADD_EVENT:
+        addEvent(user, readEvent(in), byId);
+        break;
+      case REMOVE_EVENT:
+        removeEvent(user, readEvent(in));
+        break;
+      case MODIFY_EVENT:
+        removeEvent(user, readEvent(in));
+        addEvent(user, readEvent(in), byId);
+        break;
+      default:
+        throw new IOException("Unknown journal record " + type + ".");
+    }
+  }
+
+  private static void addEvent(User user, Event event, Map<Long, Event> byId) {
+    if (user.getSchedule().getEvent(event.getId()) != null) {
+      return;
+    }
+    // An event on several schedules is shared again, like in the running planner
+    Event shared = byId.get(event.getId());
+    if (shared == null || !sameContent(shared, event)) {
+      // A modified event replaces the old version for the holders replayed after this one
+      byId.put(event.getId(), event);
+      shared = null;
+    }
+    user.getSchedule().addEvent(shared == null ? event : shared);
+  }
+
+  private static void removeEvent(User user, Event event) {
+    Event existing = user.getSchedule().getEvent(event.getId());
+    if (existing != null) {
+      user.getSchedule().removeEvent(existing);
+    }
+  }
+
+  private static boolean sameContent(Event a, Event b) {
+    return Objects.equals(a.getName(), b.getName())
+            && Objects.equals(a.getLocation(), b.getLocation())
+            && Objects.equals(a.getStartTime(), b.getStartTime())
+            && Objects.equals(a.getEndTime(), b.getEndTime())
+            && a.isOnline() == b.isOnline()
+            && Objects.equals(a.getHostId(), b.getHostId())
+            && Objects.equals(a.getInvitees(), b.getInvitees());
+  }
+
+  private static byte[] eventRecord(byte type, String userId, Event event) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeByte(type);
+    writeString(out, userId);
+    writeEvent(out, event);
+    return bytes.toByteArray();
+  }
+
+  private static void writeEvent(DataOutputStream out, Event event) throws IOException {
+    out.writeLong(event.getId());
+    writeString(out, event.getName());
+    writeString(out, event.getLocation());
+    writeTime(out, event.getStartTime());
+    writeTime(out, event.getEndTime());
+    out.writeBoolean(event.isOnline());
+    writeString(out, event.getHostId());
+    List<String> invitees = event.getInvitees();
+    out.writeInt(invitees == null ? -1 : invitees.size());
+    if (invitees != null) {
+      for (String invitee : invitees) {
+        writeString(out, invitee);
+      }
+    }
+  }
+
+  private static Event readEvent(DataInputStream in) throws IOException {
+    long id = in.readLong();
+    String name = readString(in);
+    String location = readString(in);
+    LocalDateTime start = readTime(in);
+    LocalDateTime end = readTime(in);
+    boolean online = in.readBoolean();
+    String host = readString(in);
+    int inviteeCount = in.readInt();
+    List<String> invitees = null;
+    if (inviteeCount >= 0) {
+      invitees = new ArrayList<>(inviteeCount);
+      for (int i = 0; i < inviteeCount; i++) {
+        invitees.add(readString(in));
+      }
+    }
+    Event event = new Event(name, start, end, location, online, invitees, host);
+    event.assignId(id);
+    return event;
+  }
+
+  private static void writeString(DataOutputStream out, String string) throws IOException {
+    out.writeBoolean(string != null);
+    if (string != null) {
+      out.writeUTF(string);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return in.readBoolean() ? in.readUTF() : null;
+  }
+
+  private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+    out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+    out.writeInt(time.getNano());
+  }
+
+  private static LocalDateTime readTime(DataInputStream in) throws IOException {
+    long seconds = in.readLong();
+    int nanos = in.readInt();
+    return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+}
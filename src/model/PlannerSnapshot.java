@@ -0,0 +1,284 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the PlannerSnapshot.
+ * This class saves all the users, schedules and events of a planner in a compact binary file
+ * and reads them back, which is much faster than parsing an XML file per user.
+ * The file starts with a magic number and a version, followed by a table of every distinct
+ * string (names, locations and user ids are stored once), a table of every distinct event
+ * (an event on several schedules is stored once, with its ID), and the users with the events
+ * on their schedules.
+ * The file is read and written through a FileChannel, and can be memory-mapped when it is
+ * read.
+ * XML files are still used to exchange single schedules.
+ */
+public class PlannerSnapshot {
+  private static final int MAGIC = 0x504C4E52;
+  private static final int VERSION = 2;
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * Writes the users and their schedules to a snapshot file, replacing the file if it exists.
+   * The file is written to a temporary file first and then moved over the target.
+   *
+   * @param users the users to save
+   * @param file  the snapshot file
+   * @throws IOException if the file cannot be written
+   */
+  public static void write(Collection<User> users, Path file) throws IOException {
+    Path absolute = file.toAbsolutePath();
+    Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(),
+            ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        writeTo(channel, users);
+        channel.force(true);
+      }
+      try {
+        Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Reads the users and their schedules from a snapshot file.
+   * Each user gets a new Schedule, and an event that was on several schedules is shared.
+   *
+   * @param file   the snapshot file
+   * @param mapped true to memory-map the file instead of reading it into the heap
+   * @return the users in the snapshot
+   * @throws IOException if the file cannot be read or is not a snapshot
+   */
+  public static List<User> read(Path file, boolean mapped) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot is too large.");
+      }
+      ByteBuffer buffer;
+      if (mapped) {
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      } else {
+        buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+          // keep reading until the buffer is full
+        }
+        buffer.flip();
+      }
+      try {
+        return readFrom(buffer);
+      } catch (RuntimeException e) {
+        throw new IOException("Snapshot is corrupt.", e);
+      }
+    }
+  }
+
+  private static void writeTo(FileChannel channel, Collection<User> users) throws IOException {
+    Map<String, Integer> strings = new HashMap<>();
+    List<String> stringTable = new ArrayList<>();
+    Map<Event, Integer> eventIndex = new HashMap<>();
+    List<Event> eventTable = new ArrayList<>();
+    List<List<Event>> schedules = new ArrayList<>();
+    for (User user : users) {
+      intern(user.getId(), strings, stringTable);
+      intern(user.getName(), strings, stringTable);
+      List<Event> events = user.getSchedule().getEvents();
+      schedules.add(events);
+      for (Event event : events) {
+        if (eventIndex.putIfAbsent(event, eventTable.size()) == null) {
+          eventTable.add(event);
+          intern(event.getName(), strings, stringTable);
+          intern(event.getLocation(), strings, stringTable);
+          intern(event.getHostId(), strings, stringTable);
+          if (event.getInvitees() != null) {
+            for (String invitee : event.getInvitees()) {
+              intern(invitee, strings, stringTable);
+            }
+          }
+        }
+      }
+    }
+
+    Output out = new Output(channel);
+    out.putInt(MAGIC);
+    out.putInt(VERSION);
+    out.putInt(stringTable.size());
+    for (String string : stringTable) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      out.putInt(bytes.length);
+      out.putBytes(bytes);
+    }
+    out.putInt(eventTable.size());
+    for (Event event : eventTable) {
+      out.putLong(event.getId());
+      out.putInt(symbol(event.getName(), strings));
+      out.putInt(symbol(event.getLocation(), strings));
+      out.putTime(event.getStartTime());
+      out.putTime(event.getEndTime());
+      out.putInt(event.isOnline() ? 1 : 0);
+      out.putInt(symbol(event.getHostId(), strings));
+      List<String> invitees = event.getInvitees();
+      out.putInt(invitees == null ? -1 : invitees.size());
+      if (invitees != null) {
+        for (String invitee : invitees) {
+          out.putInt(symbol(invitee, strings));
+        }
+      }
+    }
+    out.putInt(schedules.size());
+    int i = 0;
+    for (User user : users) {
+      List<Event> events = schedules.get(i++);
+      out.putInt(symbol(user.getId(), strings));
+      out.putInt(symbol(user.getName(), strings));
+      out.putInt(events.size());
+      for (Event event : events) {
+        out.putInt(eventIndex.get(event));
+      }
+    }
+    out.flush();
+  }
+
+  private static List<User> readFrom(ByteBuffer in) throws IOException {
+    if (in.getInt() != MAGIC) {
+      throw new IOException("Not a planner snapshot.");
+    }
+    int version = in.getInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported snapshot version " + version + ".");
+    }
+    String[] strings = new String[in.getInt()];
+    for (int i = 0; i < strings.length; i++) {
+      byte[] bytes = new byte[in.getInt()];
+      in.get(bytes);
+      strings[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    Event[] events = new Event[in.getInt()];
+    for (int i = 0; i < events.length; i++) {
+      long id = in.getLong();
+      String name = string(in.getInt(), strings);
+      String location = string(in.getInt(), strings);
+      LocalDateTime start = getTime(in);
+      LocalDateTime end = getTime(in);
+      boolean online = in.getInt() != 0;
+      String host = string(in.getInt(), strings);
+      int inviteeCount = in.getInt();
+      List<String> invitees = null;
+      if (inviteeCount >= 0) {
+        invitees = new ArrayList<>(inviteeCount);
+        for (int j = 0; j < inviteeCount; j++) {
+          invitees.add(string(in.getInt(), strings));
+        }
+      }
+      events[i] = new Event(name, start, end, location, online, invitees, host);
+      events[i].assignId(id);
+    }
+    int userCount = in.getInt();
+    List<User> users = new ArrayList<>(userCount);
+    for (int i = 0; i < userCount; i++) {
+      User user = new User(string(in.getInt(), strings), string(in.getInt(), strings));
+      int eventCount = in.getInt();
+      for (int j = 0; j < eventCount; j++) {
+        user.getSchedule().addEvent(events[in.getInt()]);
+      }
+      users.add(user);
+    }
+    return users;
+  }
+
+  private static void intern(String string, Map<String, Integer> strings, List<String> table) {
+    if (string != null && strings.putIfAbsent(string, table.size()) == null) {
+      table.add(string);
+    }
+  }
+
+  private static int symbol(String string, Map<String, Integer> strings) {
+    return string == null ? -1 : strings.get(string);
+  }
+
+  private static String string(int symbol, String[] strings) {
+    return symbol < 0 ? null : strings[symbol];
+  }
+
+  private static LocalDateTime getTime(ByteBuffer in) {
+    long seconds = in.getLong();
+    int nanos = in.getInt();
+    return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+  }
+
+  /**
+   * A buffered writer of big-endian values to a file channel.
+   */
+  private static class Output {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    Output(FileChannel channel) {
+      this.channel = channel;
+      this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    void putInt(int value) throws IOException {
+      ensure(Integer.BYTES);
+      buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+      ensure(Long.BYTES);
+      buffer.putLong(value);
+    }
+
+    void putTime(LocalDateTime time) throws IOException {
+      ensure(Long.BYTES + Integer.BYTES);
+      buffer.putLong(time.toEpochSecond(ZoneOffset.UTC));
+      buffer.putInt(time.getNano());
+    }
+
+    void putBytes(byte[] bytes) throws IOException {
+      int offset = 0;
+      while (offset < bytes.length) {
+        ensure(1);
+        int length = Math.min(buffer.remaining(), bytes.length - offset);
+        buffer.put(bytes, offset, length);
+        offset += length;
+      }
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    private void ensure(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+  }
+}
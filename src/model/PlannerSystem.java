@@ -1,30 +1,30 @@
 package model;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import java.io.File;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.time.DayOfWeek;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+
+import javax.xml.stream.XMLStreamException;
 
 /**
  * This class represents the planner system.
@@ -35,11 +35,52 @@ import javax.xml.transform.stream.StreamResult;
  * Every user has a unique ID.
  * For all events in a user's schedule, the start time is before the end time.
  * No two events in a user's schedule overlap in time.
+ * The planner can be used from many threads. Reads of different users never contend, and a
+ * change only locks the schedules of the users it touches.
+ * Readers can take an immutable snapshot of the whole planner with getSnapshot, which is
+ * only rebuilt after something has changed, and can follow every change to the events, one
+ * event at a time, with a planner listener.
  */
 public class PlannerSystem implements IPlannerSystemModel {
+  // The number of events of an uploaded file added and journaled at a time
+  private static final int UPLOAD_BATCH = 512;
 
-  private Map<String, User> users = new HashMap<>();
+  private final Map<String, User> users = new ConcurrentHashMap<>();
   private ISchedulingStrategy schedulingStrategy;
+  private PlannerJournal journal;
+  private final AtomicLong version = new AtomicLong();
+  private final AtomicReference<ModelSnapshot> snapshot = new AtomicReference<>();
+  private final InviteeIndex invitations = new InviteeIndex();
+  private final UserNameIndex names = new UserNameIndex();
+  private final EventRegistry registry = new EventRegistry();
+  private final Map<ISchedule, User> owners = new ConcurrentHashMap<>();
+  private final Map<ISchedule, StabbingIndex> stabbing = new ConcurrentHashMap<>();
+  private final List<IPlannerListener> plannerListeners = new CopyOnWriteArrayList<>();
+  // Set while modifyEvent swaps an event, which is reported as one modification
+  private final ThreadLocal<Boolean> modifying = ThreadLocal.withInitial(() -> false);
+  private final IScheduleListener changes = new IScheduleListener() {
+    @Override
+    public void eventAdded(ISchedule schedule, Event event) {
+      version.incrementAndGet();
+      User owner = owners.get(schedule);
+      if (owner != null && !modifying.get()) {
+        for (IPlannerListener listener : plannerListeners) {
+          listener.eventAdded(owner, event);
+        }
+      }
+    }
+
+    @Override
+    public void eventRemoved(ISchedule schedule, Event event) {
+      version.incrementAndGet();
+      User owner = owners.get(schedule);
+      if (owner != null && !modifying.get()) {
+        for (IPlannerListener listener : plannerListeners) {
+          listener.eventRemoved(owner, event);
+        }
+      }
+    }
+  };
 
   /**
    * Constructor for the PlannerSystem class.
@@ -51,11 +92,78 @@ public class PlannerSystem implements IPlannerSystemModel {
     User user1 = new User("1", "John");
     User user2 = new User("2", "Jane");
 
-    uploadSchedule("john.xml", user1);
-    uploadSchedule("jane.xml", user2);
+    Map<User, Path> defaults = new LinkedHashMap<>();
+    defaults.put(user1, Paths.get("john.xml"));
+    defaults.put(user2, Paths.get("jane.xml"));
+    for (ScheduleLoadResult result : loadSchedules(defaults)) {
+      if (!result.isSuccessful()) {
+        throw new IllegalStateException("Error reading the XML file: " + result);
+      }
+    }
+  }
+
+  /**
+   * Constructor for the PlannerSystem class with the given users.
+   * No XML files are read, so this is used to start from a snapshot.
+   *
+   * @param users the users of the system, each with their schedule
+   * @throws IllegalArgumentException if the list is null or two users have the same ID
+   */
+  public PlannerSystem(List<User> users) {
+    if (users == null) {
+      throw new IllegalArgumentException("Users cannot be null.");
+    }
+    for (User user : users) {
+      this.addUser(user);
+    }
+  }
+
+  /**
+   * Records every later change to the users and their schedules in the given journal.
+   * The journal must already be recovered, and should hold the same users as this system.
+   *
+   * @param journal the journal to write to, or null to stop journaling
+   */
+  public void setJournal(PlannerJournal journal) {
+    this.journal = journal;
+  }
 
-    this.addUser(user1);
-    this.addUser(user2);
+  /**
+   * Writes a change to the journal, if there is one. The change has already been made in
+   * memory, and the schedules it touched are still locked, so the journal has the changes
+   * of each user in the same order as memory.
+   */
+  private void journal(JournalEntry entry) {
+    if (journal == null) {
+      return;
+    }
+    try {
+      entry.writeTo(journal);
+    } catch (IOException e) {
+      throw new IllegalStateException("Error writing the journal", e);
+    }
+  }
+
+  /**
+   * Compacts the journal when it has grown too large. Compacting reads every schedule, so it
+   * is left for a later change if this thread still holds a schedule lock.
+   */
+  private void compactJournalIfNeeded() {
+    if (journal == null || ScheduleLocks.isHoldingLocks() || !journal.needsCompaction()) {
+      return;
+    }
+    try {
+      journal.compact(users.values());
+    } catch (IOException e) {
+      throw new IllegalStateException("Error compacting the journal", e);
+    }
+  }
+
+  /**
+   * A change that can be written to the journal.
+   */
+  private interface JournalEntry {
+    void writeTo(PlannerJournal journal) throws IOException;
   }
 
   @Override
@@ -65,19 +173,18 @@ public class PlannerSystem implements IPlannerSystemModel {
 
   @Override
   public List<Event> getEventsForWeekStarting(User user, LocalDate startDate) {
-    List<Event> weekEvents = new ArrayList<>();
     LocalDate endDate = startDate.plusDays(7);
-    for (Event event : user.getSchedule().getEvents()) {
-      if (!event.getStartTime().toLocalDate().isBefore(startDate) &&
-              event.getStartTime().toLocalDate().isBefore(endDate)) {
-        weekEvents.add(event);
-      }
-    }
-    return weekEvents;
+    return user.getSchedule().eventsBetween(startDate.atStartOfDay(), endDate.atStartOfDay());
   }
 
   @Override
   public boolean uploadSchedule(String xmlFilePath, User user) {
+    return uploadSchedule(xmlFilePath, user, null);
+  }
+
+  @Override
+  public boolean uploadSchedule(String xmlFilePath, User user,
+                                IScheduleImportListener listener) {
     if (user == null) {
       throw new IllegalArgumentException("User is null.");
     }
@@ -85,73 +192,181 @@ public class PlannerSystem implements IPlannerSystemModel {
       throw new IllegalArgumentException("Invalid XML file path.");
     }
 
-    try {
-      File xmlFile = new File(xmlFilePath);
-      DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-      Document doc = dBuilder.parse(xmlFile);
-      doc.getDocumentElement().normalize();
-      NodeList nList = doc.getElementsByTagName("event");
-
-      for (int i = 0; i < nList.getLength(); i++) {
-        Node nNode = nList.item(i);
-        if (nNode.getNodeType() == Node.ELEMENT_NODE) {
-          Element eElement = (Element) nNode;
-          String name = eElement.getElementsByTagName("name")
-                  .item(0).getTextContent().replace("\"", "");
-          String startDay = eElement.getElementsByTagName("start-day").item(0).getTextContent();
-          String startTimeString = eElement.getElementsByTagName("start").item(0).getTextContent();
-          String endDay = eElement.getElementsByTagName("end-day").item(0).getTextContent();
-          String endTimeString = eElement.getElementsByTagName("end").item(0).getTextContent();
-          boolean isOnline = Boolean.parseBoolean(eElement.getElementsByTagName("online").
-                  item(0).getTextContent());
-          String place = eElement.getElementsByTagName("place").
-                  item(0).getTextContent().replace("\"", "");
-          ArrayList<String> invitees = new ArrayList<>();
-          String hostId = null;
-
-          NodeList userNodes = eElement.getElementsByTagName("users").item(0).getChildNodes();
-          for (int j = 0; j < userNodes.getLength(); j++) {
-            Node uidNode = userNodes.item(j);
-            if (uidNode.getNodeType() == Node.ELEMENT_NODE) {
-              String uid = removeQuotes(uidNode.getTextContent().trim());
-              invitees.add(uid);
-              if (hostId == null) {
-                hostId = uid;
-              }
-            }
+    List<Event> pending = new ArrayList<>();
+    try (InputStream input = new BufferedInputStream(new FileInputStream(xmlFilePath))) {
+      new ScheduleXmlReader().read(input, new IScheduleImportListener() {
+        @Override
+        public void onEvent(Event event) {
+          pending.add(event);
+          if (pending.size() == UPLOAD_BATCH) {
+            addUploaded(user, pending, listener);
           }
+        }
 
-          DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HHmm");
-          LocalTime startTime = LocalTime.parse(startTimeString, timeFormatter);
-          LocalTime endTime = LocalTime.parse(endTimeString, timeFormatter);
-          LocalDate startDate = LocalDate.now().with(TemporalAdjusters
-                  .next(DayOfWeek.valueOf(startDay.toUpperCase())));
-          LocalDate endDate = LocalDate.now().with(TemporalAdjusters
-                  .next(DayOfWeek.valueOf(endDay.toUpperCase())));
-          LocalDateTime startDateTime = LocalDateTime.of(startDate, startTime);
-          LocalDateTime endDateTime = LocalDateTime.of(endDate, endTime);
-
+        @Override
+        public void onEventError(int eventNumber, String message) {
+          if (listener != null) {
+            listener.onEventError(eventNumber, message);
+          } else {
+            System.out.println("Skipping event " + eventNumber + " in " + xmlFilePath
+                    + ": " + message);
+          }
+        }
 
-          Event event = new Event(name, startDateTime, endDateTime, place, isOnline,
-                  invitees, hostId);
-          user.getSchedule().addEvent(event);
+        @Override
+        public void onProgress(int eventsRead) {
+          if (listener != null) {
+            listener.onProgress(eventsRead);
+          }
         }
-      }
+      });
       return true;
     } catch (IOException e) {
       throw new IllegalStateException("Error reading the XML file", e);
-    } catch (Exception e) {
+    } catch (XMLStreamException e) {
       e.printStackTrace();
       return false;
+    } finally {
+      // The events read before an error stay on the schedule, so they are added too
+      addUploaded(user, pending, listener);
+    }
+  }
+
+  /**
+   * Adds a batch of uploaded events to a user's schedule and journals them, with the schedule
+   * locked for both, so a change to one of the events made at the same time cannot reach
+   * the journal before the event itself. The file is read in batches so the schedule is not
+   * locked while the whole file is read.
+   */
+  private void addUploaded(User user, List<Event> events, IScheduleImportListener listener) {
+    if (events.isEmpty()) {
+      return;
+    }
+    List<Event> added = new ArrayList<>(events.size());
+    List<Lock> locks = ScheduleLocks.lock(user);
+    try {
+      // Only a user that attach has finished with is in the journal. A user who is not in
+      // the planner yet is journaled with its events by addUser.
+      boolean attached = owners.get(user.getSchedule()) == user;
+      for (Event event : events) {
+        // A meeting that another user of the planner already has is shared, not copied
+        Event shared = attached ? registry.canonical(event, user.getSchedule()) : event;
+        user.getSchedule().addEvent(shared);
+        added.add(shared);
+      }
+      if (attached) {
+        journal(j -> j.eventsAdded(user.getId(), added));
+      }
+    } finally {
+      ScheduleLocks.unlock(locks);
+    }
+    events.clear();
+    compactJournalIfNeeded();
+    if (listener != null) {
+      for (Event event : added) {
+        listener.onEvent(event);
+      }
+    }
+  }
+
+  @Override
+  public List<ScheduleLoadResult> loadSchedules(Map<User, Path> files) {
+    if (files == null) {
+      throw new IllegalArgumentException("Files cannot be null.");
+    }
+    List<ScheduleLoadResult> results = new ArrayList<>();
+    if (files.isEmpty()) {
+      return results;
+    }
+    int threads = Math.min(files.size(), Runtime.getRuntime().availableProcessors());
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      // Parse every file in parallel, then add the events here one file at a time
+      Map<User, Future<ParsedSchedule>> parsing = new LinkedHashMap<>();
+      for (Map.Entry<User, Path> entry : files.entrySet()) {
+        Path path = entry.getValue();
+        parsing.put(entry.getKey(), executor.submit(() -> parseSchedule(path)));
+      }
+      for (Map.Entry<User, Future<ParsedSchedule>> entry : parsing.entrySet()) {
+        results.add(mergeSchedule(entry.getKey(), files.get(entry.getKey()), entry.getValue()));
+      }
+    } finally {
+      executor.shutdownNow();
     }
+    return results;
   }
 
-  private String removeQuotes(String text) {
-    if (text == null) {
-      return null;
+  private ParsedSchedule parseSchedule(Path path) throws IOException, XMLStreamException {
+    ParsedSchedule parsed = new ParsedSchedule();
+    try (InputStream input = new BufferedInputStream(Files.newInputStream(path))) {
+      new ScheduleXmlReader().read(input, parsed);
+    }
+    return parsed;
+  }
+
+  private ScheduleLoadResult mergeSchedule(User user, Path path, Future<ParsedSchedule> future) {
+    String userId = user == null ? null : user.getId();
+    if (user == null || userId == null || path == null) {
+      future.cancel(true);
+      return new ScheduleLoadResult(userId, path, 0, new ArrayList<>(), "No user or file.");
+    }
+    ParsedSchedule parsed;
+    try {
+      parsed = future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new ScheduleLoadResult(userId, path, 0, new ArrayList<>(), "Interrupted.");
+    } catch (ExecutionException e) {
+      return new ScheduleLoadResult(userId, path, 0, new ArrayList<>(),
+              String.valueOf(e.getCause()));
+    }
+    User existing = users.putIfAbsent(userId, user);
+    if (existing != null && existing != user) {
+      return new ScheduleLoadResult(userId, path, 0, parsed.errors,
+              "Another user with this id already exists.");
+    }
+    if (existing == null) {
+      attach(user);
+    }
+    List<Event> added = new ArrayList<>(parsed.events.size());
+    // The events are journaled before the schedule is unlocked, so a change to one of them
+    // made at the same time is journaled after it
+    List<Lock> locks = ScheduleLocks.lock(user);
+    try {
+      for (Event event : parsed.events) {
+        Event shared = registry.canonical(event, user.getSchedule());
+        user.getSchedule().addEvent(shared);
+        added.add(shared);
+      }
+      journal(j -> j.eventsAdded(userId, added));
+    } finally {
+      ScheduleLocks.unlock(locks);
+    }
+    compactJournalIfNeeded();
+    return new ScheduleLoadResult(userId, path, parsed.events.size(), parsed.errors, null);
+  }
+
+  /**
+   * The events and errors read from one file before they are added to a schedule.
+   */
+  private static class ParsedSchedule implements IScheduleImportListener {
+    private final List<Event> events = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+
+    @Override
+    public void onEvent(Event event) {
+      events.add(event);
+    }
+
+    @Override
+    public void onEventError(int eventNumber, String message) {
+      errors.add("Event " + eventNumber + ": " + message);
+    }
+
+    @Override
+    public void onProgress(int eventsRead) {
+      // Progress is not reported for bulk loads
     }
-    return text.replace("\"", "");  // Remove all double quotes
   }
 
   @Override
@@ -165,36 +380,24 @@ public class PlannerSystem implements IPlannerSystemModel {
     }
 
     try {
-      DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-      Document doc = dBuilder.newDocument();
-
-      // Root element
-      Element rootElement = doc.createElement("schedule");
-      doc.appendChild(rootElement);
-      rootElement.setAttribute("id", user.getId());
-
-      List<Event> events = user.getSchedule().getEvents();
-      DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
-
-      for (Event event : events) {
-        Element eventElement = doc.createElement("event");
-        rootElement.appendChild(eventElement);
-
-        // Populate the eventElement with details from the Event object
-        // Similar to the example provided previously
-
-        // Write the content into XML file
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-        Transformer transformer = transformerFactory.newTransformer();
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        DOMSource source = new DOMSource(doc);
-        StreamResult result = new StreamResult(new File(xmlFilePath));
+      new ScheduleXmlWriter().write(Paths.get(xmlFilePath), user.getId(),
+              user.getSchedule().getEvents());
+      return true;
+    } catch (IOException | XMLStreamException e) {
+      e.printStackTrace();
+      return false;
+    }
+  }
 
-        transformer.transform(source, result);
-      }
+  @Override
+  public boolean saveSnapshot(Path file) {
+    if (file == null) {
+      throw new IllegalArgumentException("Invalid snapshot path.");
+    }
+    try {
+      PlannerSnapshot.write(users.values(), file);
       return true;
-    } catch (Exception e) {
+    } catch (IOException e) {
       e.printStackTrace();
       return false;
     }
@@ -202,22 +405,130 @@ public class PlannerSystem implements IPlannerSystemModel {
 
   @Override
   public void selectUser(User user) {
-    if (user == null || !users.containsKey(user.getId())) {
+    if (user == null || !hasUser(user)) {
       throw new IllegalArgumentException("User not found in the system.");
     }
   }
 
   @Override
   public void addUser(User user) {
-    if (user == null || users.containsKey(user.getId())) {
+    if (user == null || user.getId() == null || users.putIfAbsent(user.getId(), user) != null) {
       throw new IllegalArgumentException("Invalid user or user already exists.");
     }
-    users.put(user.getId(), user);
+    attach(user);
+    compactJournalIfNeeded();
+  }
+
+  /**
+   * Starts following the changes to a user's schedule that was just added to the users, and
+   * indexes the events that are already on it. The user and those events are journaled
+   * together, so they are both back after a restart.
+   */
+  private void attach(User user) {
+    List<Lock> locks = ScheduleLocks.lock(user);
+    try {
+      user.getSchedule().addListener(changes);
+      user.getSchedule().addListener(invitations);
+      user.getSchedule().addListener(registry);
+      for (Event event : user.getSchedule().getEvents()) {
+        invitations.eventAdded(user.getSchedule(), event);
+        registry.eventAdded(user.getSchedule(), event);
+      }
+      owners.put(user.getSchedule(), user);
+      names.add(user);
+      version.incrementAndGet();
+      List<Event> existing = user.getSchedule().getEvents();
+      journal(j -> {
+        j.userAdded(user);
+        j.eventsAdded(user.getId(), existing);
+      });
+    } finally {
+      ScheduleLocks.unlock(locks);
+    }
+  }
+
+  @Override
+  public boolean removeUser(String userId) {
+    User user = getUser(userId);
+    if (user == null) {
+      return false;
+    }
+    // The user is taken out of events on any schedule, so every schedule is locked
+    List<Lock> locks = ScheduleLocks.lock(new ArrayList<>(users.values()));
+    try {
+      if (!users.remove(userId, user)) {
+        return false;
+      }
+      ISchedule schedule = user.getSchedule();
+      schedule.removeListener(changes);
+      schedule.removeListener(invitations);
+      schedule.removeListener(registry);
+      for (Event event : schedule.getEvents()) {
+        invitations.eventRemoved(schedule, event);
+        registry.eventRemoved(schedule, event);
+      }
+      owners.remove(schedule);
+      stabbing.remove(schedule);
+      for (Event event : invitations.eventsInvitedTo(userId)) {
+        removeInvitee(event, userId);
+      }
+      names.remove(user);
+      version.incrementAndGet();
+      journal(j -> j.userRemoved(userId));
+    } finally {
+      ScheduleLocks.unlock(locks);
+    }
+    compactJournalIfNeeded();
+    return true;
+  }
+
+  /**
+   * Takes a user out of the invitees of an event. The event is replaced on every schedule
+   * that holds it by a copy without the user, like a modification, so snapshots taken
+   * before still show the old event, and the planner listeners are told. The journal only
+   * needs the removal of the user, whose replay takes the user out of the invitees again.
+   */
+  private void removeInvitee(Event event, String userId) {
+    List<String> invitees = new ArrayList<>(event.getInvitees());
+    invitees.removeAll(Collections.singleton(userId));
+    Event updated = event.withInvitees(invitees);
+    List<User> holders = new ArrayList<>();
+    for (ISchedule schedule : registry.holders(event.getId())) {
+      User owner = owners.get(schedule);
+      if (owner != null) {
+        holders.add(owner);
+      }
+    }
+    modifying.set(true);
+    try {
+      for (User holder : holders) {
+        holder.getSchedule().removeEvent(event);
+      }
+      for (User holder : holders) {
+        holder.getSchedule().addEvent(updated);
+      }
+    } finally {
+      modifying.set(false);
+    }
+    for (User holder : holders) {
+      for (IPlannerListener listener : plannerListeners) {
+        listener.eventModified(holder, event, updated);
+      }
+    }
+  }
+
+  @Override
+  public List<Event> getEventsInvitedTo(String userId) {
+    return invitations.eventsInvitedTo(userId);
+  }
+
+  private boolean hasUser(User user) {
+    return user.getId() != null && users.containsKey(user.getId());
   }
 
   @Override
   public User getUser(String userId) {
-    return users.get(userId);
+    return userId == null ? null : users.get(userId);
   }
 
   @Override
@@ -238,22 +549,30 @@ public class PlannerSystem implements IPlannerSystemModel {
     }
 
     // Ensure the user exists in the system
-    if (!users.containsKey(user.getId())) {
+    if (!hasUser(user)) {
       throw new IllegalArgumentException("User does not exist in the system.");
     }
 
-    // Check for event conflicts before adding the event
-    if (user.getSchedule().hasEventConflict(event)) {
-      throw new IllegalStateException("The event conflicts with an existing event.");
-    }
-
-    // Attempt to add the event to the user's schedule
+    // The conflict check and the add are one step for other threads
+    List<Lock> locks = ScheduleLocks.lock(user);
     try {
-      user.getSchedule().addEvent(event);
-      return true;
-    } catch (Exception e) {
-      throw new IllegalStateException("Error creating the event", e);
+      // Check for event conflicts before adding the event
+      if (user.getSchedule().hasEventConflict(event)) {
+        throw new IllegalStateException("The event conflicts with an existing event.");
+      }
+
+      // Attempt to add the event to the user's schedule
+      try {
+        user.getSchedule().addEvent(event);
+      } catch (Exception e) {
+        throw new IllegalStateException("Error creating the event", e);
+      }
+      journal(j -> j.eventAdded(user.getId(), event));
+    } finally {
+      ScheduleLocks.unlock(locks);
     }
+    compactJournalIfNeeded();
+    return true;
   }
 
 
@@ -268,16 +587,105 @@ public class PlannerSystem implements IPlannerSystemModel {
       throw new IllegalArgumentException("Original event and updated event are the same.");
     }
 
-    if (!users.containsKey(user.getId())) {
+    if (updatedEvent.getStartTime() == null || updatedEvent.getEndTime() == null) {
+      // Checked before the original is removed, so a bad update leaves every schedule as is
+      throw new IllegalArgumentException("The updated event must have a start and end time.");
+    }
+
+    if (!hasUser(user)) {
       throw new IllegalStateException("User does not exist in the system.");
     }
+    if (registry.get(updatedEvent.getId()) != null) {
+      // The updated event takes the ID of the original, which would corrupt the schedules
+      // and the registry that already know it under its own ID
+      throw new IllegalArgumentException("The updated event is already in the planner.");
+    }
+    // Every participant holds the same event, so all of them get the updated one
+    List<User> holders = holdersOf(originalEvent, user);
+    List<Lock> locks = ScheduleLocks.lock(holders);
     try {
-      user.getSchedule().removeEvent(originalEvent);
-      user.getSchedule().addEvent(updatedEvent);
-      return true;
-    } catch (Exception e) {
-      throw new IllegalStateException("Error modifying the event", e);
+      List<User> current = holdersOf(originalEvent, user);
+      while (!holders.containsAll(current)) {
+        // Someone else added the event to another schedule before the locks were taken
+        ScheduleLocks.unlock(locks);
+        holders = current;
+        locks = ScheduleLocks.lock(holders);
+        current = holdersOf(originalEvent, user);
+      }
+      modifying.set(true);
+      try {
+        for (User holder : current) {
+          holder.getSchedule().removeEvent(originalEvent);
+        }
+        updatedEvent.assignId(originalEvent.getId());
+        for (User holder : current) {
+          holder.getSchedule().addEvent(updatedEvent);
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException("Error modifying the event", e);
+      } finally {
+        modifying.set(false);
+      }
+      for (User holder : current) {
+        for (IPlannerListener listener : plannerListeners) {
+          listener.eventModified(holder, originalEvent, updatedEvent);
+        }
+      }
+      for (User holder : current) {
+        journal(j -> j.eventModified(holder.getId(), originalEvent, updatedEvent));
+      }
+    } finally {
+      ScheduleLocks.unlock(locks);
+    }
+    compactJournalIfNeeded();
+    return true;
+  }
+
+  /**
+   * Gets the given user and every other user whose schedule holds the event.
+   */
+  private List<User> holdersOf(Event event, User user) {
+    List<User> holders = new ArrayList<>();
+    holders.add(user);
+    if (registry.get(event.getId()) == event) {
+      for (ISchedule schedule : registry.holders(event.getId())) {
+        User owner = owners.get(schedule);
+        if (owner != null && owner != user) {
+          holders.add(owner);
+        }
+      }
     }
+    return holders;
+  }
+
+  @Override
+  public boolean modifyEvent(User user, long eventId, Event updatedEvent) {
+    if (user == null || updatedEvent == null) {
+      throw new IllegalArgumentException("User or updated event is null.");
+    }
+    Event originalEvent = user.getSchedule().getEvent(eventId);
+    if (originalEvent == null) {
+      return false;
+    }
+    return modifyEvent(user, originalEvent, updatedEvent);
+  }
+
+  @Override
+  public void addPlannerListener(IPlannerListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null.");
+    }
+    plannerListeners.add(listener);
+  }
+
+  @Override
+  public void removePlannerListener(IPlannerListener listener) {
+    plannerListeners.remove(listener);
+  }
+
+  @Override
+  public Event getEvent(long eventId) {
+    return registry.get(eventId);
   }
 
   @Override
@@ -285,16 +693,34 @@ public class PlannerSystem implements IPlannerSystemModel {
     if (user == null || event == null) {
       throw new IllegalArgumentException("User or event is null.");
     }
+    removeEvent(user, event.getId());
+    return true;
+  }
 
-    if (!users.containsKey(user.getId())) {
+  @Override
+  public boolean removeEvent(User user, long eventId) {
+    if (user == null) {
+      throw new IllegalArgumentException("User is null.");
+    }
+    if (!hasUser(user)) {
       throw new IllegalStateException("User does not exist in the system.");
     }
+    Event removed;
+    List<Lock> locks = ScheduleLocks.lock(user);
     try {
-      user.getSchedule().removeEvent(event);
-      return true;
-    } catch (Exception e) {
-      throw new IllegalStateException("Error removing the event", e);
+      try {
+        removed = user.getSchedule().removeEvent(eventId);
+      } catch (Exception e) {
+        throw new IllegalStateException("Error removing the event", e);
+      }
+      if (removed != null) {
+        journal(j -> j.eventRemoved(user.getId(), removed));
+      }
+    } finally {
+      ScheduleLocks.unlock(locks);
     }
+    compactJournalIfNeeded();
+    return removed != null;
   }
 
   @Override
@@ -303,15 +729,22 @@ public class PlannerSystem implements IPlannerSystemModel {
     if (user == null || event == null) {
       throw new IllegalArgumentException("User or event is null.");
     }
-    if (!users.containsKey(user.getId())) {
+    if (!hasUser(user)) {
       throw new IllegalStateException("User does not exist in the system.");
     }
+    List<Lock> locks = ScheduleLocks.lock(user);
     try {
-      user.getSchedule().addEvent(event);
-      return true;
-    } catch (Exception e) {
-      throw new IllegalStateException("Error scheduling the event", e);
+      try {
+        user.getSchedule().addEvent(event);
+      } catch (Exception e) {
+        throw new IllegalStateException("Error scheduling the event", e);
+      }
+      journal(j -> j.eventAdded(user.getId(), event));
+    } finally {
+      ScheduleLocks.unlock(locks);
     }
+    compactJournalIfNeeded();
+    return true;
   }
 
   @Override
@@ -320,41 +753,93 @@ public class PlannerSystem implements IPlannerSystemModel {
       throw new IllegalArgumentException("User or time is null.");
     }
 
-    if (!users.containsKey(user.getId())) {
+    if (!hasUser(user)) {
       throw new IllegalStateException("User does not exist in the system.");
     }
-    List<Event> events = user.getSchedule().getEvents();
-    List<Event> eventsAtTime = new ArrayList<>();
-    for (Event event : events) {
-      if (event.getStartTime().isBefore(time) && event.getEndTime().isAfter(time)) {
-        eventsAtTime.add(event);
-      }
+    return stabbingIndex(user).stab(time);
+  }
+
+  @Override
+  public List<List<Event>> seeEvents(User user, List<LocalDateTime> times) {
+    if (user == null || times == null || times.contains(null)) {
+      throw new IllegalArgumentException("User or time is null.");
     }
-    return eventsAtTime;
+    if (!hasUser(user)) {
+      throw new IllegalStateException("User does not exist in the system.");
+    }
+    return stabbingIndex(user).stabAll(times);
+  }
+
+  /**
+   * Gets the stabbing index of the user's schedule, building a new one if the schedule
+   * changed since the last one was built.
+   */
+  private StabbingIndex stabbingIndex(User user) {
+    ISchedule schedule = user.getSchedule();
+    StabbingIndex index = stabbing.get(schedule);
+    if (index != null && index.getVersion() == schedule.getVersion()) {
+      return index;
+    }
+    long current;
+    List<Event> events;
+    schedule.getLock().readLock().lock();
+    try {
+      current = schedule.getVersion();
+      events = schedule.getEvents();
+    } finally {
+      schedule.getLock().readLock().unlock();
+    }
+    index = new StabbingIndex(current, events);
+    stabbing.put(schedule, index);
+    return index;
   }
 
   @Override
   public List<User> getUsers() {
-    return new ArrayList<>(users.values());
+    return getSnapshot().getUsers();
   }
 
   @Override
   public List<Event> getEvents() {
-    List<Event> events = new ArrayList<>();
-    for (User user : users.values()) {
-      events.addAll(user.getSchedule().getEvents());
-    }
-    return events;
+    return getSnapshot().getEvents();
   }
 
   @Override
-  public User getUserByName(String name) {
-    for (User user : users.values()) {
-      if (user.getName().equals(name)) {
-        return user;
+  public ModelSnapshot getSnapshot() {
+    ModelSnapshot current = snapshot.get();
+    if (current != null && current.getVersion() == version.get()) {
+      return current;
+    }
+    // Read every schedule at one moment: writers lock the users they change in the same order
+    List<User> all = new ArrayList<>(users.values());
+    List<Lock> locks = ScheduleLocks.lockForReading(all);
+    try {
+      long at = version.get();
+      List<List<Event>> events = new ArrayList<>(all.size());
+      for (User user : all) {
+        events.add(user.getSchedule().getEvents());
       }
+      current = new ModelSnapshot(at, all, events);
+    } finally {
+      ScheduleLocks.unlock(locks);
     }
-    return null;
+    snapshot.set(current);
+    return current;
+  }
+
+  @Override
+  public User getUserByName(String name) {
+    return names.find(name);
+  }
+
+  @Override
+  public User getUserByNameIgnoreCase(String name) {
+    return names.findIgnoreCase(name);
+  }
+
+  @Override
+  public List<User> findUsersByNamePrefix(String prefix, int limit) {
+    return names.findByPrefix(prefix, limit);
   }
 
   @Override
@@ -363,7 +848,14 @@ public class PlannerSystem implements IPlannerSystemModel {
     if (user == null) {
       throw new IllegalArgumentException("User not found");
     }
-    user.getSchedule().addEvent(event);
+    List<Lock> locks = ScheduleLocks.lock(user);
+    try {
+      user.getSchedule().addEvent(event);
+      journal(j -> j.eventAdded(user.getId(), event));
+    } finally {
+      ScheduleLocks.unlock(locks);
+    }
+    compactJournalIfNeeded();
   }
 
   @Override
@@ -372,6 +864,7 @@ public class PlannerSystem implements IPlannerSystemModel {
       throw new IllegalStateException("Scheduling strategy is not set.");
     }
     schedulingStrategy.scheduleEvent(event, user, this);
+    compactJournalIfNeeded();
   }
 
 
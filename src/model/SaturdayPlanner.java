@@ -4,9 +4,7 @@ package model;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.temporal.TemporalAdjusters;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * This is another model class called SaturdayPlanner.
@@ -20,17 +18,23 @@ public class SaturdayPlanner extends PlannerSystem {
     super();
   }
 
+  /**
+   * Constructs a SaturdayPlanner with the given users, without reading any XML files.
+   *
+   * @param users the users of the system, each with their schedule
+   */
+  public SaturdayPlanner(List<User> users) {
+    super(users);
+  }
+
   @Override
   public List<Event> getEventsForWeekStarting(User user, LocalDate startDate) {
     LocalDate saturday = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.SATURDAY));
     LocalDate nextSaturday = saturday.plusDays(7);
 
-    return user.getSchedule().getEvents().stream()
-            .filter(event -> event.getStartTime().toLocalDate().
-                    isAfter(saturday.minusDays(1))
-                    && event.getStartTime().toLocalDate().isBefore(nextSaturday))
-            .sorted(Comparator.comparing(Event::getStartTime))
-            .collect(Collectors.toList());
+    // The schedule keeps its events sorted, so no sorting is needed here
+    return user.getSchedule().eventsBetween(saturday.atStartOfDay(),
+            nextSaturday.atStartOfDay());
   }
 
 }
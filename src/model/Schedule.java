@@ -2,43 +2,76 @@ package model;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
  * This class represents a schedule in the calendar system.
- * A schedule has a list of events.
+ * A schedule has a list of events, kept in order of their start time.
  * We can add and remove events from the schedule.
- * We can also get the list of events in the schedule.
+ * We can also get the list of events in the schedule, or only the events starting in a
+ * given time range, which is found with a binary search on the start times.
+ * The events are also kept in a map by ID.
  */
-public class Schedule implements ISchedule {
-  private List<Event> events;
+public class Schedule extends AbstractSchedule {
+  private final NavigableMap<LocalDateTime, List<Event>> events;
+  private final Map<Long, Event> byId;
+  private int size;
 
   /**
    * Constructs a new Schedule with an empty list of events.
    */
   public Schedule() {
-    this.events = new ArrayList<>();
+    this.events = new TreeMap<>();
+    this.byId = new HashMap<>();
+    this.size = 0;
   }
 
   @Override
-  public void addEvent(Event event) {
-    events.add(event);
+  protected boolean store(Event event) {
+    events.computeIfAbsent(event.getStartTime(), start -> new ArrayList<>(1)).add(event);
+    byId.put(event.getId(), event);
+    size++;
+    return true;
   }
 
   @Override
-  public boolean removeEvent(Event event) {
-    return events.remove(event);
+  protected Event find(long eventId) {
+    return byId.get(eventId);
   }
 
   @Override
-  public List<Event> getEvents() {
-    return new ArrayList<>(events);
+  protected boolean discard(Event event) {
+    if (event.getStartTime() != null
+            && removeFrom(event.getStartTime(), events.get(event.getStartTime()), event)) {
+      return true;
+    }
+    // The event may have been given a new start time after it was added
+    for (Map.Entry<LocalDateTime, List<Event>> entry : events.entrySet()) {
+      if (removeFrom(entry.getKey(), entry.getValue(), event)) {
+        return true;
+      }
+    }
+    return false;
   }
 
-  @Override
-  public boolean hasEventConflict(Event event) {
-    for (Event e : events) {
-      if (e.conflictsWith(event)) {
+  private boolean removeFrom(LocalDateTime start, List<Event> bucket, Event event) {
+    if (bucket == null) {
+      return false;
+    }
+    Iterator<Event> it = bucket.iterator();
+    while (it.hasNext()) {
+      if (it.next() == event) {
+        it.remove();
+        if (bucket.isEmpty()) {
+          events.remove(start);
+        }
+        byId.remove(event.getId());
+        size--;
         return true;
       }
     }
@@ -46,12 +79,49 @@ public class Schedule implements ISchedule {
   }
 
   @Override
-  public boolean isAvailable(LocalDateTime startSearch, LocalDateTime endSearchTime) {
-    for (Event e : events) {
-      if (e.getStartTime().isBefore(endSearchTime) && e.getEndTime().isAfter(startSearch)) {
-        return false;
+  protected List<Event> allEvents() {
+    List<Event> result = new ArrayList<>(size);
+    for (List<Event> bucket : events.values()) {
+      result.addAll(bucket);
+    }
+    return result;
+  }
+
+  @Override
+  protected List<Event> startingBetween(LocalDateTime from, LocalDateTime to) {
+    List<Event> result = new ArrayList<>();
+    if (!from.isBefore(to)) {
+      return result;
+    }
+    for (List<Event> bucket : events.subMap(from, true, to, false).values()) {
+      result.addAll(bucket);
+    }
+    return result;
+  }
+
+  @Override
+  protected boolean anyOverlapping(LocalDateTime start, LocalDateTime end) {
+    // Only events that start before the end of the range can overlap it
+    for (List<Event> bucket : events.headMap(end, false).values()) {
+      for (Event e : bucket) {
+        if (e.getEndTime().isAfter(start)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  protected List<Event> overlapping(LocalDateTime start, LocalDateTime end) {
+    List<Event> overlapping = new ArrayList<>();
+    for (List<Event> bucket : events.headMap(end, false).values()) {
+      for (Event e : bucket) {
+        if (e.getEndTime().isAfter(start)) {
+          overlapping.add(e);
+        }
       }
     }
-    return true;
+    return overlapping;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package model;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents the result of loading one schedule file.
+ * It says which user and file it is for, how many events were loaded, which events were
+ * skipped because they could not be read, and why the file failed if it did.
+ */
+public class ScheduleLoadResult {
+  private final String userId;
+  private final Path path;
+  private final int eventsLoaded;
+  private final List<String> eventErrors;
+  private final String failure;
+
+  /**
+   * Constructs a ScheduleLoadResult.
+   *
+   * @param userId       the id of the user the file was loaded for
+   * @param path         the file that was loaded
+   * @param eventsLoaded the number of events added to the user's schedule
+   * @param eventErrors  a description of every event that was skipped
+   * @param failure      why the whole file failed, or null if it was loaded
+   */
+  public ScheduleLoadResult(String userId, Path path, int eventsLoaded,
+                            List<String> eventErrors, String failure) {
+    this.userId = userId;
+    this.path = path;
+    this.eventsLoaded = eventsLoaded;
+    this.eventErrors = new ArrayList<>(eventErrors);
+    this.failure = failure;
+  }
+
+  /**
+   * Gets the id of the user the file was loaded for.
+   *
+   * @return the user id
+   */
+  public String getUserId() {
+    return userId;
+  }
+
+  /**
+   * Gets the file that was loaded.
+   *
+   * @return the path of the file
+   */
+  public Path getPath() {
+    return path;
+  }
+
+  /**
+   * Gets the number of events added to the user's schedule.
+   *
+   * @return the number of events loaded
+   */
+  public int getEventsLoaded() {
+    return eventsLoaded;
+  }
+
+  /**
+   * Gets a description of every event that was skipped.
+   *
+   * @return a new list of the event errors
+   */
+  public List<String> getEventErrors() {
+    return new ArrayList<>(eventErrors);
+  }
+
+  /**
+   * Gets why the whole file failed.
+   *
+   * @return the reason, or null if the file was loaded
+   */
+  public String getFailure() {
+    return failure;
+  }
+
+  /**
+   * Checks if the file was loaded.
+   *
+   * @return true if the file was loaded, even if some events were skipped
+   */
+  public boolean isSuccessful() {
+    return failure == null;
+  }
+
+  @Override
+  public String toString() {
+    if (!isSuccessful()) {
+      return path + " (" + userId + "): failed, " + failure;
+    }
+    return path + " (" + userId + "): " + eventsLoaded + " events loaded, "
+            + eventErrors.size() + " skipped";
+  }
+}
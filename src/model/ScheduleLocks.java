@@ -0,0 +1,111 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * This class takes the write locks of several users' schedules for a change that touches
+ * all of them, such as scheduling an event for a host and its invitees, or their read locks
+ * to read all of them at one moment.
+ * The locks are always taken in order of user ID, so two changes that share users cannot
+ * deadlock. It also remembers how many locks each thread holds, so that slow work which
+ * reads every schedule, like compacting the journal, is not started while holding one.
+ */
+final class ScheduleLocks {
+  private static final ThreadLocal<int[]> HELD = new ThreadLocal<int[]>() {
+    @Override
+    protected int[] initialValue() {
+      return new int[1];
+    }
+  };
+
+  private static final Comparator<User> BY_ID = new Comparator<User>() {
+    @Override
+    public int compare(User a, User b) {
+      if (a.getId() == null || b.getId() == null) {
+        return a.getId() == null ? (b.getId() == null ? 0 : -1) : 1;
+      }
+      return a.getId().compareTo(b.getId());
+    }
+  };
+
+  private ScheduleLocks() {
+  }
+
+  /**
+   * Takes the write locks of the users' schedules in order of user ID.
+   * A schedule shared by several users is only locked once.
+   *
+   * @param users the users whose schedules are changed
+   * @return the locks that were taken, to pass to unlock
+   */
+  static List<Lock> lock(List<User> users) {
+    return lock(users, true);
+  }
+
+  /**
+   * Takes the read locks of the users' schedules in order of user ID, to read all of them
+   * at one moment.
+   *
+   * @param users the users whose schedules are read
+   * @return the locks that were taken, to pass to unlock
+   */
+  static List<Lock> lockForReading(List<User> users) {
+    return lock(users, false);
+  }
+
+  private static List<Lock> lock(List<User> users, boolean write) {
+    List<User> ordered = new ArrayList<>(users);
+    ordered.sort(BY_ID);
+    Map<ISchedule, Boolean> seen = new IdentityHashMap<>();
+    List<Lock> locks = new ArrayList<>(ordered.size());
+    for (User user : ordered) {
+      if (seen.put(user.getSchedule(), Boolean.TRUE) == null) {
+        ReadWriteLock both = user.getSchedule().getLock();
+        Lock lock = write ? both.writeLock() : both.readLock();
+        lock.lock();
+        locks.add(lock);
+        HELD.get()[0]++;
+      }
+    }
+    return locks;
+  }
+
+  /**
+   * Takes the write lock of one user's schedule.
+   *
+   * @param user the user whose schedule is changed
+   * @return the lock that was taken, to pass to unlock
+   */
+  static List<Lock> lock(User user) {
+    List<User> users = new ArrayList<>(1);
+    users.add(user);
+    return lock(users);
+  }
+
+  /**
+   * Releases locks taken by lock, in the reverse order.
+   *
+   * @param locks the locks to release
+   */
+  static void unlock(List<Lock> locks) {
+    for (int i = locks.size() - 1; i >= 0; i--) {
+      locks.get(i).unlock();
+      HELD.get()[0]--;
+    }
+  }
+
+  /**
+   * Checks if the current thread holds any lock taken through this class.
+   *
+   * @return true if the thread holds a schedule lock
+   */
+  static boolean isHoldingLocks() {
+    return HELD.get()[0] > 0;
+  }
+}
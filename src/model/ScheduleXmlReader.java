@@ -0,0 +1,153 @@
+package model;
+
+import java.io.InputStream;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * This class represents the ScheduleXmlReader.
+ * This class reads a schedule XML file with a streaming parser and hands each event to a
+ * listener as soon as it has been read, so memory use does not grow with the file size.
+ * An event that cannot be read is reported to the listener and skipped.
+ * The days in the file are turned into dates in the week after the given date.
+ */
+public class ScheduleXmlReader {
+  private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HHmm");
+
+  private final XMLInputFactory factory;
+  private final LocalDate today;
+
+  /**
+   * Constructs a ScheduleXmlReader that places events in the week after today.
+   */
+  public ScheduleXmlReader() {
+    this(LocalDate.now());
+  }
+
+  /**
+   * Constructs a ScheduleXmlReader that places events in the week after the given date.
+   *
+   * @param today the date the days of the week are counted from
+   */
+  public ScheduleXmlReader(LocalDate today) {
+    this.today = today;
+    this.factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+  }
+
+  /**
+   * Reads all the events from the input.
+   *
+   * @param input    the XML input
+   * @param listener the listener that receives the events, errors, and progress
+   * @return the number of events read successfully
+   * @throws XMLStreamException if the input is not well formed XML
+   */
+  public int read(InputStream input, IScheduleImportListener listener)
+          throws XMLStreamException {
+    XMLStreamReader reader = factory.createXMLStreamReader(input);
+    int eventNumber = 0;
+    int eventsRead = 0;
+    try {
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamConstants.START_ELEMENT
+                && reader.getLocalName().equals("event")) {
+          eventNumber++;
+          try {
+            Event event = readEvent(reader);
+            eventsRead++;
+            listener.onEvent(event);
+          } catch (IllegalArgumentException | DateTimeParseException e) {
+            listener.onEventError(eventNumber, e.getMessage());
+          }
+          listener.onProgress(eventNumber);
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    return eventsRead;
+  }
+
+  private Event readEvent(XMLStreamReader reader) throws XMLStreamException {
+    String name = null;
+    String startDay = null;
+    String startTime = null;
+    String endDay = null;
+    String endTime = null;
+    String online = null;
+    String place = null;
+    List<String> invitees = new ArrayList<>();
+
+    // Read every field before checking them, so the reader always ends after </event>
+    while (reader.hasNext()) {
+      int type = reader.next();
+      if (type == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("event")) {
+        break;
+      }
+      if (type != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      switch (reader.getLocalName()) {
+        case "name":
+          name = removeQuotes(reader.getElementText());
+          break;
+        case "start-day":
+          startDay = reader.getElementText().trim();
+          break;
+        case "start":
+          startTime = reader.getElementText().trim();
+          break;
+        case "end-day":
+          endDay = reader.getElementText().trim();
+          break;
+        case "end":
+          endTime = reader.getElementText().trim();
+          break;
+        case "online":
+          online = reader.getElementText().trim();
+          break;
+        case "place":
+          place = removeQuotes(reader.getElementText());
+          break;
+        case "uid":
+          invitees.add(removeQuotes(reader.getElementText().trim()));
+          break;
+        default:
+          break;
+      }
+    }
+
+    if (name == null || startDay == null || startTime == null || endDay == null
+            || endTime == null || online == null || place == null) {
+      throw new IllegalArgumentException("Event is missing a name, time, or location.");
+    }
+    LocalDateTime start = LocalDateTime.of(dateOf(startDay),
+            LocalTime.parse(startTime, TIME_FORMATTER));
+    LocalDateTime end = LocalDateTime.of(dateOf(endDay), LocalTime.parse(endTime, TIME_FORMATTER));
+    String hostId = invitees.isEmpty() ? null : invitees.get(0);
+    return new Event(name, start, end, place, Boolean.parseBoolean(online), invitees, hostId);
+  }
+
+  private LocalDate dateOf(String day) {
+    return today.with(TemporalAdjusters.next(DayOfWeek.valueOf(day.toUpperCase())));
+  }
+
+  private static String removeQuotes(String text) {
+    return text.replace("\"", "");  // Remove all double quotes
+  }
+}
@@ -0,0 +1,166 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * This class represents the ScheduleXmlWriter.
+ * This class writes a schedule in the same XML format that the ScheduleXmlReader reads.
+ * The events are streamed to the output one at a time, so writing takes time in proportion
+ * to the number of events and no document is built in memory.
+ * When writing to a file, the schedule is written to a temporary file first, which then
+ * replaces the target file, so the target is never left half written.
+ */
+public class ScheduleXmlWriter {
+  private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HHmm");
+
+  private final XMLOutputFactory factory;
+
+  /**
+   * Constructs a new ScheduleXmlWriter.
+   */
+  public ScheduleXmlWriter() {
+    this.factory = XMLOutputFactory.newInstance();
+  }
+
+  /**
+   * Writes the schedule to a file, replacing the file if it exists.
+   *
+   * @param file       the file to write
+   * @param scheduleId the id written on the schedule element
+   * @param events     the events of the schedule
+   * @throws IOException        if the file cannot be written
+   * @throws XMLStreamException if the XML cannot be written
+   */
+  public void write(Path file, String scheduleId, List<Event> events)
+          throws IOException, XMLStreamException {
+    Path absolute = file.toAbsolutePath();
+    Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(),
+            ".tmp");
+    try {
+      try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(temp))) {
+        write(output, scheduleId, events);
+      }
+      try {
+        Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Writes the schedule to an output stream. The stream is not closed.
+   *
+   * @param output     the stream to write to
+   * @param scheduleId the id written on the schedule element
+   * @param events     the events of the schedule
+   * @throws XMLStreamException if the XML cannot be written
+   */
+  public void write(OutputStream output, String scheduleId, List<Event> events)
+          throws XMLStreamException {
+    XMLStreamWriter writer = factory.createXMLStreamWriter(output, "UTF-8");
+    writer.writeStartDocument("UTF-8", "1.0");
+    writer.writeCharacters("\n");
+    writer.writeStartElement("schedule");
+    writer.writeAttribute("id", scheduleId == null ? "" : scheduleId);
+    for (Event event : events) {
+      if (event.getStartTime() != null && event.getEndTime() != null) {
+        writeEvent(writer, event);
+      }
+    }
+    writer.writeCharacters("\n");
+    writer.writeEndElement();
+    writer.writeCharacters("\n");
+    writer.writeEndDocument();
+    writer.flush();
+    writer.close();
+  }
+
+  private void writeEvent(XMLStreamWriter writer, Event event) throws XMLStreamException {
+    indent(writer, 1);
+    writer.writeStartElement("event");
+    writeField(writer, 2, "name", quote(event.getName()));
+
+    indent(writer, 2);
+    writer.writeStartElement("time");
+    writeField(writer, 3, "start-day", dayOf(event.getStartTime()));
+    writeField(writer, 3, "start", TIME_FORMATTER.format(event.getStartTime()));
+    writeField(writer, 3, "end-day", dayOf(event.getEndTime()));
+    writeField(writer, 3, "end", TIME_FORMATTER.format(event.getEndTime()));
+    indent(writer, 2);
+    writer.writeEndElement();
+
+    indent(writer, 2);
+    writer.writeStartElement("location");
+    writeField(writer, 3, "online", String.valueOf(event.isOnline()));
+    writeField(writer, 3, "place", quote(event.getLocation()));
+    indent(writer, 2);
+    writer.writeEndElement();
+
+    indent(writer, 2);
+    writer.writeStartElement("users");
+    for (String uid : usersOf(event)) {
+      writeField(writer, 3, "uid", quote(uid));
+    }
+    indent(writer, 2);
+    writer.writeEndElement();
+
+    indent(writer, 1);
+    writer.writeEndElement();
+  }
+
+  /**
+   * The host is the first user in the file, so it is written first if it is not already.
+   */
+  private List<String> usersOf(Event event) {
+    List<String> users = new ArrayList<>();
+    if (event.getInvitees() != null) {
+      users.addAll(event.getInvitees());
+    }
+    String host = event.getHostId();
+    if (host != null && (users.isEmpty() || !users.get(0).equals(host))) {
+      users.remove(host);
+      users.add(0, host);
+    }
+    return users;
+  }
+
+  private void writeField(XMLStreamWriter writer, int depth, String name, String value)
+          throws XMLStreamException {
+    indent(writer, depth);
+    writer.writeStartElement(name);
+    writer.writeCharacters(value);
+    writer.writeEndElement();
+  }
+
+  private void indent(XMLStreamWriter writer, int depth) throws XMLStreamException {
+    writer.writeCharacters("\n" + "    ".repeat(depth));
+  }
+
+  private static String dayOf(LocalDateTime time) {
+    return time.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+  }
+
+  private static String quote(String text) {
+    return "\"" + (text == null ? "" : text) + "\"";
+  }
+}
@@ -1,43 +1,47 @@
 package model;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class represents the SearchingStrategy.
  * This class is used to search for the first possible time for an event to be scheduled.
+ * The free time of the host and all the invitees is found in one pass by the FreeSlotFinder.
+ * The event is booked on every schedule as one BookingTransaction, so two searches running at
+ * the same time cannot book the same time.
  */
 public class SearchingStrategy {
-  static void search(Event event, IReadOnlyModel plannerSystem, Schedule userSchedule,
-                     LocalDateTime startSearch, LocalDateTime endSearch) {
-    while (startSearch.isBefore(endSearch)) {
-      LocalDateTime endSearchTime = startSearch.plusMinutes(event.getDuration());
-      System.out.println("event: " + event);
-      System.out.println("getDuration: " + event.getDuration());
-      System.out.println("startSearch: " + startSearch);
-      System.out.println("endSearchTime: " + endSearchTime);
-      if (userSchedule.isAvailable(startSearch, endSearchTime)) {
-        boolean allInviteesAvailable = true;
-        for (String inviteeId : event.getInvitees()) {
-          User invitee = plannerSystem.getUser(inviteeId);
-          if (invitee == null || !invitee.getSchedule().isAvailable(startSearch, endSearchTime)) {
-            allInviteesAvailable = false;
-            break;
-          }
-        }
-        if (allInviteesAvailable) {
-          event.setTime(startSearch);
-          userSchedule.addEvent(event);
-          for (String inviteeId : event.getInvitees()) {
-            User invitee = plannerSystem.getUser(inviteeId);
-            invitee.getSchedule().addEvent(event);
-          }
-          return;
-        }
+  /**
+   * The default distance in minutes between the start times that are tried.
+   */
+  static final int DEFAULT_STEP_MINUTES = 30;
+
+  static boolean search(Event event, IReadOnlyModel plannerSystem, User host,
+                        LocalDateTime startSearch, LocalDateTime endSearch) {
+    return search(event, plannerSystem, host, startSearch, endSearch,
+            DEFAULT_STEP_MINUTES);
+  }
+
+  static boolean search(Event event, IReadOnlyModel plannerSystem, User host,
+                        LocalDateTime startSearch, LocalDateTime endSearch, int stepMinutes) {
+    List<User> participants = new ArrayList<>();
+    List<ISchedule> schedules = new ArrayList<>();
+    participants.add(host);
+    schedules.add(host.getSchedule());
+    for (String inviteeId : event.getInvitees()) {
+      User invitee = plannerSystem.getUser(inviteeId);
+      if (invitee == null) {
+        return false;
       }
-      startSearch = startSearch.plusMinutes(30);
-      if (!startSearch.isBefore(endSearch)) {
-        break;
+      // The host is usually an invitee too, and must only get the event once
+      if (!schedules.contains(invitee.getSchedule())) {
+        participants.add(invitee);
+        schedules.add(invitee.getSchedule());
       }
     }
+
+    return new BookingTransaction(plannerSystem, participants).book(event, startSearch,
+            endSearch, stepMinutes);
   }
 }
@@ -0,0 +1,183 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * This class represents an index that answers "which events are happening at this time".
+ * It is a centered interval tree over the events of a schedule at one version: every node
+ * has a center time and the events that span it, sorted once by start and once by end, and
+ * the events entirely before or after the center are in the left and right subtrees.
+ * A query walks one path from the root and only reads the events it returns, so it costs
+ * O(log n + k). The index does not change; a new one is built when the schedule changes.
+ * An event is happening at a time when it starts before the time and ends after it.
+ */
+final class StabbingIndex {
+  private final long version;
+  private final Event[] byStart;
+  private final LocalDateTime[] starts;
+  private final LocalDateTime[] ends;
+  private final Node root;
+
+  /**
+   * Builds the index of the events of a schedule.
+   *
+   * @param version the version of the schedule the events were read at
+   * @param events  the events of the schedule, ordered by start time
+   */
+  StabbingIndex(long version, List<Event> events) {
+    this.version = version;
+    this.byStart = events.toArray(new Event[0]);
+    this.starts = new LocalDateTime[byStart.length];
+    this.ends = new LocalDateTime[byStart.length];
+    List<Integer> ranks = new ArrayList<>(byStart.length);
+    for (int i = 0; i < byStart.length; i++) {
+      starts[i] = byStart[i].getStartTime();
+      ends[i] = byStart[i].getEndTime();
+      // An event that ends when it starts is never happening
+      if (starts[i].isBefore(ends[i])) {
+        ranks.add(i);
+      }
+    }
+    this.root = build(ranks);
+  }
+
+  /**
+   * Gets the version of the schedule this index was built from.
+   *
+   * @return the version
+   */
+  long getVersion() {
+    return version;
+  }
+
+  /**
+   * Gets the events happening at a time.
+   *
+   * @param time the time
+   * @return a new list of the events, ordered by start time
+   */
+  List<Event> stab(LocalDateTime time) {
+    List<Integer> found = new ArrayList<>();
+    Node node = root;
+    while (node != null) {
+      int cmp = time.compareTo(node.center);
+      if (cmp <= 0) {
+        // Every event here ends after the center, so it only has to start before the time
+        for (int i = 0; i < node.byStart.length && starts[node.byStart[i]].isBefore(time); i++) {
+          found.add(node.byStart[i]);
+        }
+        node = cmp < 0 ? node.left : null;
+      } else {
+        // Every event here starts at or before the center, so it only has to end after it
+        for (int i = 0; i < node.byEnd.length && ends[node.byEnd[i]].isAfter(time); i++) {
+          found.add(node.byEnd[i]);
+        }
+        node = node.right;
+      }
+    }
+    Collections.sort(found);
+    List<Event> result = new ArrayList<>(found.size());
+    for (int rank : found) {
+      result.add(byStart[rank]);
+    }
+    return result;
+  }
+
+  /**
+   * Gets the events happening at each of many times, in one pass over the times in order.
+   * Every event is added to and removed from the set of running events once, so this costs
+   * O((n + m) log n + k) for m times instead of one query per time.
+   *
+   * @param times the times
+   * @return a new list with the events happening at each time, in the order of the times,
+   *         each ordered by start time
+   */
+  List<List<Event>> stabAll(List<LocalDateTime> times) {
+    Integer[] order = new Integer[times.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparing(times::get));
+    List<List<Event>> result = new ArrayList<>(Collections.nCopies(order.length, null));
+    PriorityQueue<Integer> byEnd = new PriorityQueue<>(Comparator.comparing(i -> ends[i]));
+    TreeSet<Integer> running = new TreeSet<>();
+    int next = 0;
+    for (int i : order) {
+      LocalDateTime time = times.get(i);
+      while (next < byStart.length && starts[next].isBefore(time)) {
+        byEnd.add(next);
+        running.add(next);
+        next++;
+      }
+      while (!byEnd.isEmpty() && !ends[byEnd.peek()].isAfter(time)) {
+        running.remove(byEnd.poll());
+      }
+      List<Event> events = new ArrayList<>(running.size());
+      for (int rank : running) {
+        events.add(byStart[rank]);
+      }
+      result.set(i, events);
+    }
+    return result;
+  }
+
+  /**
+   * Builds the subtree of the events with the given ranks, centered on the median start.
+   * The event at the median spans the center, so every node has at least one event.
+   */
+  private Node build(List<Integer> ranks) {
+    if (ranks.isEmpty()) {
+      return null;
+    }
+    LocalDateTime center = starts[ranks.get(ranks.size() / 2)];
+    List<Integer> left = new ArrayList<>();
+    List<Integer> right = new ArrayList<>();
+    List<Integer> spanning = new ArrayList<>();
+    for (int rank : ranks) {
+      if (!ends[rank].isAfter(center)) {
+        left.add(rank);
+      } else if (starts[rank].isAfter(center)) {
+        right.add(rank);
+      } else {
+        spanning.add(rank);
+      }
+    }
+    int[] nodeByStart = new int[spanning.size()];
+    for (int i = 0; i < nodeByStart.length; i++) {
+      // The ranks are already in start order
+      nodeByStart[i] = spanning.get(i);
+    }
+    spanning.sort(Comparator.comparing((Integer rank) -> ends[rank]).reversed());
+    int[] nodeByEnd = new int[spanning.size()];
+    for (int i = 0; i < nodeByEnd.length; i++) {
+      nodeByEnd[i] = spanning.get(i);
+    }
+    return new Node(center, nodeByStart, nodeByEnd, build(left), build(right));
+  }
+
+  /**
+   * A node of the tree: the ranks of the events that span its center, by start and by end.
+   */
+  private static class Node {
+    private final LocalDateTime center;
+    private final int[] byStart;
+    private final int[] byEnd;
+    private final Node left;
+    private final Node right;
+
+    Node(LocalDateTime center, int[] byStart, int[] byEnd, Node left, Node right) {
+      this.center = center;
+      this.byStart = byStart;
+      this.byEnd = byEnd;
+      this.left = left;
+      this.right = right;
+    }
+  }
+}
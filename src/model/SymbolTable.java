@@ -0,0 +1,85 @@
+package model;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * This class represents a table of interned strings.
+ * Every distinct string is kept once, so a string used by many events (a location, a user
+ * id) is shared by all of them, and an event only keeps a reference to it.
+ * The table holds its strings weakly: a string that no event refers to any more is dropped
+ * from the table by the garbage collector, so the table does not grow with every string
+ * that was ever seen.
+ * The strings are spread over several stripes by hash, each with its own lock, so threads
+ * that build events at the same time rarely wait for each other.
+ */
+final class SymbolTable {
+  /**
+   * The table shared by every event.
+   */
+  static final SymbolTable SHARED = new SymbolTable();
+
+  private static final int STRIPES = 64;
+
+  private final Stripe[] stripes;
+
+  /**
+   * Constructs an empty table.
+   */
+  SymbolTable() {
+    this.stripes = new Stripe[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe();
+    }
+  }
+
+  /**
+   * Gets the copy of a string kept by the table, adding the string to the table if it is new.
+   *
+   * @param string the string, may be null
+   * @return the string equal to the given one that is kept by the table, or null for null
+   */
+  String intern(String string) {
+    if (string == null) {
+      return null;
+    }
+    int hash = string.hashCode();
+    return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)].intern(string);
+  }
+
+  /**
+   * Gets the number of strings in the table, including those not yet reclaimed.
+   *
+   * @return the number of strings
+   */
+  int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      size += stripe.size();
+    }
+    return size;
+  }
+
+  /**
+   * The strings of one stripe, with the stripe itself as their lock.
+   */
+  private static final class Stripe {
+    private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+    synchronized String intern(String string) {
+      WeakReference<String> reference = strings.get(string);
+      String kept = reference == null ? null : reference.get();
+      if (kept == null) {
+        // The key is the string itself, so the entry lives as long as the string is used
+        strings.put(string, new WeakReference<>(string));
+        kept = string;
+      }
+      return kept;
+    }
+
+    synchronized int size() {
+      return strings.size();
+    }
+  }
+}
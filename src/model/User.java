@@ -10,7 +10,7 @@ import java.util.List;
 public class User implements IUser {
   private String id;
   private String name;
-  private Schedule schedule;
+  private ISchedule schedule;
 
   /**
    * Constructor for the User class.
@@ -19,9 +19,24 @@ public class User implements IUser {
    * @param name the user's name
    */
   public User(String id, String name) {
+    this(id, name, new Schedule());
+  }
+
+  /**
+   * Constructor for the User class with a specific schedule implementation.
+   * This allows a user to use, for example, an IntervalTreeSchedule instead of a Schedule.
+   *
+   * @param id       the user's unique ID
+   * @param name     the user's name
+   * @param schedule the schedule that holds the user's events
+   */
+  public User(String id, String name, ISchedule schedule) {
+    if (schedule == null) {
+      throw new IllegalArgumentException("Schedule cannot be null.");
+    }
     this.id = id;
     this.name = name;
-    this.schedule = new Schedule();
+    this.schedule = schedule;
   }
 
   @Override
@@ -35,7 +50,7 @@ public class User implements IUser {
   }
 
   @Override
-  public Schedule getSchedule() {
+  public ISchedule getSchedule() {
     return schedule;
   }
 
@@ -0,0 +1,125 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * This class represents an index of users by name.
+ * The users are kept in a sorted map keyed by their name in lower case, so a name can be
+ * looked up exactly or ignoring case in O(log n), and all the names starting with a prefix
+ * can be listed in order for a type-ahead user picker. Several users may have the same name;
+ * they are returned in the order they were added.
+ * Lookups never lock; each change replaces the list of users for one name.
+ */
+final class UserNameIndex {
+  private final ConcurrentSkipListMap<String, List<User>> users;
+
+  /**
+   * Constructs an empty index.
+   */
+  UserNameIndex() {
+    this.users = new ConcurrentSkipListMap<>();
+  }
+
+  /**
+   * Adds a user to the index. Users without a name are not indexed.
+   *
+   * @param user the user to add
+   */
+  void add(User user) {
+    if (user.getName() == null) {
+      return;
+    }
+    users.compute(key(user.getName()), (name, existing) -> {
+      List<User> updated = existing == null ? new ArrayList<>(1) : new ArrayList<>(existing);
+      updated.add(user);
+      return Collections.unmodifiableList(updated);
+    });
+  }
+
+  /**
+   * Removes a user from the index.
+   *
+   * @param user the user to remove
+   */
+  void remove(User user) {
+    if (user.getName() == null) {
+      return;
+    }
+    users.computeIfPresent(key(user.getName()), (name, existing) -> {
+      List<User> updated = new ArrayList<>(existing);
+      updated.remove(user);
+      return updated.isEmpty() ? null : Collections.unmodifiableList(updated);
+    });
+  }
+
+  /**
+   * Finds the first user added with exactly the given name.
+   *
+   * @param name the name
+   * @return the user, or null if there is none
+   */
+  User find(String name) {
+    if (name == null) {
+      return null;
+    }
+    List<User> matches = users.get(key(name));
+    if (matches != null) {
+      for (User user : matches) {
+        if (user.getName().equals(name)) {
+          return user;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Finds the first user added with the given name, ignoring case.
+   *
+   * @param name the name
+   * @return the user, or null if there is none
+   */
+  User findIgnoreCase(String name) {
+    if (name == null) {
+      return null;
+    }
+    List<User> matches = users.get(key(name));
+    return matches == null ? null : matches.get(0);
+  }
+
+  /**
+   * Lists the users whose name starts with the prefix, ignoring case, ordered by name.
+   *
+   * @param prefix the start of the name
+   * @param limit  the largest number of users to return
+   * @return a new list of at most limit users
+   */
+  List<User> findByPrefix(String prefix, int limit) {
+    List<User> result = new ArrayList<>();
+    if (prefix == null || limit <= 0) {
+      return result;
+    }
+    String from = key(prefix);
+    for (Map.Entry<String, List<User>> entry : users.tailMap(from, true).entrySet()) {
+      if (!entry.getKey().startsWith(from)) {
+        break;
+      }
+      for (User user : entry.getValue()) {
+        if (result.size() == limit) {
+          return result;
+        }
+        result.add(user);
+      }
+    }
+    return result;
+  }
+
+  private static String key(String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+}
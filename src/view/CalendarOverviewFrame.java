@@ -0,0 +1,68 @@
+package view;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+
+import model.IReadOnlyModel;
+import model.User;
+
+/**
+ * This class represents a frame with the month and year overview of the schedule of a user.
+ * It shows ten years around today, starting at the current week, and switches between the
+ * month view and the year view with two buttons.
+ */
+public class CalendarOverviewFrame extends JFrame {
+  private static final int YEARS_BEFORE = 5;
+  private static final int WEEKS = 10 * 53;
+
+  /**
+   * Constructs an overview of the schedule of a user.
+   *
+   * @param model       the model to read the schedule from
+   * @param user        the user whose schedule is shown
+   * @param eventDrawer the drawer of the events in the month view
+   * @param firstDay    the day the weeks start on, which must match the event drawer
+   */
+  public CalendarOverviewFrame(IReadOnlyModel model, User user, EventDrawer eventDrawer,
+                               DayOfWeek firstDay) {
+    LocalDate today = LocalDate.now();
+    CalendarOverviewPanel overview = new CalendarOverviewPanel(model, user, eventDrawer,
+            firstDay, today.minusYears(YEARS_BEFORE), WEEKS);
+    JButton monthButton = new JButton("Month");
+    JButton yearButton = new JButton("Year");
+    monthButton.addActionListener(new ActionListener() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        overview.setRowHeight(CalendarOverviewPanel.MONTH_ROW_HEIGHT);
+      }
+    });
+    yearButton.addActionListener(new ActionListener() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        overview.setRowHeight(CalendarOverviewPanel.YEAR_ROW_HEIGHT);
+      }
+    });
+
+    JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+    buttonPanel.add(monthButton);
+    buttonPanel.add(yearButton);
+
+    setTitle("Overview of " + user.getName());
+    setLayout(new BorderLayout());
+    add(new JScrollPane(overview), BorderLayout.CENTER);
+    add(buttonPanel, BorderLayout.SOUTH);
+    setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+    pack();
+    setLocationRelativeTo(null);
+    overview.scrollToDate(today);
+  }
+}
@@ -0,0 +1,356 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.swing.JPanel;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+import model.Event;
+import model.IPlannerListener;
+import model.IReadOnlyModel;
+import model.User;
+
+/**
+ * This class represents an overview of the schedule of a user over many weeks, one row per
+ * week, to be put in a scroll pane.
+ * Only the weeks in view are read from the model, with the week query, and painted, so the
+ * panel can cover years of a schedule with tens of thousands of events and still scroll
+ * smoothly. The weeks that were read are cached, and a week is read again only after one of
+ * its events changes.
+ * When the rows are tall, as in the month view, every event is drawn by the event drawer in
+ * its day. When they are short, as in the year view, each day is shaded by how much of it
+ * is taken, and shows how many events it has when there is room.
+ * The columns of the event drawer must start on the first day of the week given to the
+ * panel, for example Sunday for the DefaultEventDrawer.
+ */
+public class CalendarOverviewPanel extends JPanel implements Scrollable {
+  /**
+   * The height of a week in the month view.
+   */
+  public static final int MONTH_ROW_HEIGHT = 120;
+  /**
+   * The height of a week in the year view.
+   */
+  public static final int YEAR_ROW_HEIGHT = 14;
+
+  private static final int DETAIL_ROW_HEIGHT = 60;
+  private static final int TEXT_ROW_HEIGHT = 12;
+  private static final int CACHED_WEEKS = 512;
+  private static final int MINUTES_PER_DAY = 24 * 60;
+  private static final Color[] HEAT = new Color[16];
+
+  static {
+    for (int i = 0; i < HEAT.length; i++) {
+      HEAT[i] = new Color(255, 0, 0, 40 + 215 * i / (HEAT.length - 1));
+    }
+  }
+
+  private final IReadOnlyModel model;
+  private final User user;
+  private final EventDrawer eventDrawer;
+  private final LocalDate firstWeek;
+  private final int weeks;
+  private final Map<LocalDate, Week> cache;
+  private final IPlannerListener changes;
+  private int rowHeight;
+
+  /**
+   * Constructs an overview of the schedule of a user.
+   *
+   * @param model       the model to read the weeks from
+   * @param user        the user whose schedule is shown
+   * @param eventDrawer the drawer of the events in the month view
+   * @param firstDay    the day the weeks start on
+   * @param from        a day in the first week shown
+   * @param weeks       the number of weeks shown
+   */
+  public CalendarOverviewPanel(IReadOnlyModel model, User user, EventDrawer eventDrawer,
+                               DayOfWeek firstDay, LocalDate from, int weeks) {
+    if (model == null || user == null || eventDrawer == null || firstDay == null
+            || from == null) {
+      throw new IllegalArgumentException("Model, user, drawer, first day and start date "
+              + "cannot be null.");
+    }
+    if (weeks <= 0) {
+      throw new IllegalArgumentException("The overview must show at least one week.");
+    }
+    this.model = model;
+    this.user = user;
+    this.eventDrawer = eventDrawer;
+    this.firstWeek = from.with(TemporalAdjusters.previousOrSame(firstDay));
+    this.weeks = weeks;
+    this.rowHeight = MONTH_ROW_HEIGHT;
+    this.cache = new LinkedHashMap<LocalDate, Week>(64, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<LocalDate, Week> eldest) {
+        return size() > CACHED_WEEKS;
+      }
+    };
+    this.changes = new IPlannerListener() {
+      @Override
+      public void eventAdded(User changed, Event event) {
+        changed(changed, event);
+      }
+
+      @Override
+      public void eventRemoved(User changed, Event event) {
+        changed(changed, event);
+      }
+
+      @Override
+      public void eventModified(User changed, Event originalEvent, Event updatedEvent) {
+        changed(changed, originalEvent);
+        changed(changed, updatedEvent);
+      }
+    };
+    setBackground(Color.WHITE);
+  }
+
+  /**
+   * Sets the height of a week, which also picks how the weeks are drawn, and keeps the week
+   * at the top of the view in view.
+   *
+   * @param rowHeight the height in pixels, for example MONTH_ROW_HEIGHT or YEAR_ROW_HEIGHT
+   */
+  public void setRowHeight(int rowHeight) {
+    if (rowHeight <= 0) {
+      throw new IllegalArgumentException("The row height must be positive.");
+    }
+    LocalDate top = getDateAt(getVisibleRect().y);
+    this.rowHeight = rowHeight;
+    setSize(getWidth(), weeks * rowHeight);
+    revalidate();
+    scrollToDate(top);
+    repaint();
+  }
+
+  /**
+   * Gets the height of a week.
+   *
+   * @return the height in pixels
+   */
+  public int getRowHeight() {
+    return rowHeight;
+  }
+
+  /**
+   * Scrolls the week of a date to the top of the view.
+   *
+   * @param date the date
+   */
+  public void scrollToDate(LocalDate date) {
+    int row = Math.max(0, Math.min(weeks - 1, rowOf(date)));
+    scrollRectToVisible(new Rectangle(0, row * rowHeight, 1,
+            Math.max(rowHeight, getVisibleRect().height)));
+  }
+
+  /**
+   * Gets the first day of the week at a height of the panel.
+   *
+   * @param y the y coordinate
+   * @return the first day of the week
+   */
+  public LocalDate getDateAt(int y) {
+    return firstWeek.plusWeeks(Math.max(0, Math.min(weeks - 1, y / rowHeight)));
+  }
+
+  @Override
+  public void addNotify() {
+    super.addNotify();
+    // The schedule may have changed while the panel was not shown
+    cache.clear();
+    model.addPlannerListener(changes);
+  }
+
+  @Override
+  public void removeNotify() {
+    model.removePlannerListener(changes);
+    super.removeNotify();
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    return new Dimension(7 * 100, weeks * rowHeight);
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    super.paintComponent(g);
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    int first = Math.max(0, clip.y / rowHeight);
+    int last = Math.min(weeks - 1, (clip.y + clip.height - 1) / rowHeight);
+    int dayWidth = getWidth() / 7;
+    Dimension size = new Dimension(dayWidth, rowHeight);
+    for (int row = first; row <= last; row++) {
+      LocalDate weekStart = firstWeek.plusWeeks(row);
+      Week week = week(weekStart);
+      int y = row * rowHeight;
+      if (rowHeight >= DETAIL_ROW_HEIGHT) {
+        paintEvents(g, week, weekStart, y, size);
+      } else {
+        paintHeat(g, week, weekStart, y, dayWidth);
+      }
+    }
+  }
+
+  /**
+   * Paints every event of a week with the event drawer, in a row of its own.
+   */
+  private void paintEvents(Graphics g, Week week, LocalDate weekStart, int y, Dimension size) {
+    Graphics2D row = (Graphics2D) g.create(0, y, getWidth(), rowHeight);
+    for (Event event : week.events) {
+      eventDrawer.drawMainSystem(row, event, size, user.getId().equals(event.getHostId()));
+    }
+    row.setColor(Color.LIGHT_GRAY);
+    row.drawLine(0, 0, getWidth(), 0);
+    for (int day = 0; day < 7; day++) {
+      row.drawLine(day * size.width, 0, day * size.width, rowHeight);
+      LocalDate date = weekStart.plusDays(day);
+      row.setColor(date.getDayOfMonth() == 1 ? Color.BLACK : Color.GRAY);
+      String label = date.getDayOfMonth() == 1
+              ? date.getMonth().getDisplayName(TextStyle.SHORT, Locale.getDefault()) + " 1"
+              : String.valueOf(date.getDayOfMonth());
+      row.drawString(label, day * size.width + 3, row.getFontMetrics().getAscent());
+      row.setColor(Color.LIGHT_GRAY);
+    }
+    row.dispose();
+  }
+
+  /**
+   * Paints each day of a week shaded by how much of it is taken.
+   */
+  private void paintHeat(Graphics g, Week week, LocalDate weekStart, int y, int dayWidth) {
+    boolean text = rowHeight >= TEXT_ROW_HEIGHT;
+    int baseline = y + (rowHeight + g.getFontMetrics().getAscent()) / 2 - 1;
+    for (int day = 0; day < 7; day++) {
+      int x = day * dayWidth;
+      if (week.counts[day] > 0) {
+        int busy = Math.min(MINUTES_PER_DAY, week.busyMinutes[day]);
+        g.setColor(HEAT[busy * (HEAT.length - 1) / MINUTES_PER_DAY]);
+        g.fillRect(x, y, dayWidth, rowHeight);
+        if (text) {
+          g.setColor(Color.BLACK);
+          g.drawString(String.valueOf(week.counts[day]), x + dayWidth / 2, baseline);
+        }
+      }
+      LocalDate date = weekStart.plusDays(day);
+      if (date.getDayOfMonth() == 1) {
+        // The first day of a month starts a new block, and is labeled when there is room
+        g.setColor(Color.BLACK);
+        g.drawLine(x, y, x, y + rowHeight - 1);
+        g.drawLine(x, y, getWidth(), y);
+        if (text) {
+          g.drawString(date.getMonth().getDisplayName(TextStyle.SHORT, Locale.getDefault())
+                  + " " + date.getYear(), x + 3, baseline);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets a week from the cache, reading it from the model if it is not there.
+   */
+  private Week week(LocalDate weekStart) {
+    Week week = cache.get(weekStart);
+    if (week == null) {
+      week = new Week(weekStart, model.getEventsForWeekStarting(user, weekStart));
+      cache.put(weekStart, week);
+    }
+    return week;
+  }
+
+  private int rowOf(LocalDate date) {
+    return (int) Math.floorDiv(ChronoUnit.DAYS.between(firstWeek, date), 7);
+  }
+
+  /**
+   * Forgets the week of an event of the user, and repaints it. The model calls this on the
+   * thread that changed it, so the work is done on the event dispatch thread.
+   */
+  private void changed(User changed, Event event) {
+    if (!user.getId().equals(changed.getId())) {
+      return;
+    }
+    LocalDate date = event.getStartTime().toLocalDate();
+    SwingUtilities.invokeLater(new Runnable() {
+      @Override
+      public void run() {
+        int row = rowOf(date);
+        cache.remove(firstWeek.plusWeeks(row));
+        if (row >= 0 && row < weeks) {
+          repaint(0, row * rowHeight, getWidth(), rowHeight);
+        }
+      }
+    });
+  }
+
+  @Override
+  public Dimension getPreferredScrollableViewportSize() {
+    return new Dimension(7 * 100, 6 * MONTH_ROW_HEIGHT);
+  }
+
+  @Override
+  public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation,
+                                        int direction) {
+    return orientation == SwingConstants.VERTICAL ? rowHeight : 10;
+  }
+
+  @Override
+  public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation,
+                                         int direction) {
+    return orientation == SwingConstants.VERTICAL
+            ? Math.max(rowHeight, visibleRect.height - rowHeight) : visibleRect.width;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportWidth() {
+    return true;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportHeight() {
+    return false;
+  }
+
+  /**
+   * The events of one week, with how many events and busy minutes each day has.
+   */
+  private static class Week {
+    private final List<Event> events;
+    private final int[] counts;
+    private final int[] busyMinutes;
+
+    Week(LocalDate weekStart, List<Event> events) {
+      this.events = events;
+      this.counts = new int[7];
+      this.busyMinutes = new int[7];
+      for (Event event : events) {
+        long day = ChronoUnit.DAYS.between(weekStart, event.getStartTime().toLocalDate());
+        if (day >= 0 && day < 7) {
+          counts[(int) day]++;
+          long minutes = Duration.between(event.getStartTime(), event.getEndTime()).toMinutes();
+          busyMinutes[(int) day] += (int) Math.max(0, Math.min(MINUTES_PER_DAY, minutes));
+        }
+      }
+    }
+  }
+}
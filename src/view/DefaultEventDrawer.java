@@ -4,6 +4,7 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 
 import model.Event;
 
@@ -19,13 +20,7 @@ public class DefaultEventDrawer implements EventDrawer {
   public void drawMainSystem(Graphics g, Event event, Dimension size, boolean isHost) {
     Graphics2D g2d = (Graphics2D) g.create();
 
-    // Calculate the position and size of the event rectangle
-    int startX = event.getStartTime().getDayOfWeek().getValue() % 7 * size.width;
-    int startY = event.getStartTime().getHour() * size.height / 24
-            + event.getStartTime().getMinute() * size.height / 1440;
-    int endY = event.getEndTime().getHour() * size.height / 24
-            + event.getEndTime().getMinute() * size.height / 1440;
-    int height = endY - startY;
+    Rectangle bounds = getBounds(event, size);
 
     // Set a default color for non-host events
     g2d.setColor(Color.RED);
@@ -35,9 +30,20 @@ public class DefaultEventDrawer implements EventDrawer {
     }
 
     // Draw the event
-    g2d.fillRect(startX, startY, size.width, height);
+    g2d.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
     g2d.dispose();
   }
 
+  @Override
+  public Rectangle getBounds(Event event, Dimension size) {
+    // Calculate the position and size of the event rectangle
+    int startX = event.getStartTime().getDayOfWeek().getValue() % 7 * size.width;
+    int startY = event.getStartTime().getHour() * size.height / 24
+            + event.getStartTime().getMinute() * size.height / 1440;
+    int endY = event.getEndTime().getHour() * size.height / 24
+            + event.getEndTime().getMinute() * size.height / 1440;
+    return new Rectangle(startX, startY, size.width, endY - startY);
+  }
+
 
 }
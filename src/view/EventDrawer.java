@@ -3,6 +3,7 @@ package view;
 import model.Event;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 
 /**
  * This interface represents the EventDrawer.
@@ -14,4 +15,13 @@ public interface EventDrawer {
    */
   void drawMainSystem(Graphics g, Event event, Dimension size, boolean isHost);
 
+  /**
+   * Gets the rectangle the event is drawn in, which is also where it can be clicked.
+   *
+   * @param event the event
+   * @param size  the size of one day column
+   * @return the rectangle
+   */
+  Rectangle getBounds(Event event, Dimension size);
+
 }
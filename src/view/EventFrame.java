@@ -13,7 +13,6 @@ import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.Locale;
 
-import javax.swing.SwingUtilities;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
@@ -28,7 +27,6 @@ import javax.swing.JTextField;
 import javax.swing.JComponent;
 
 import model.Event;
-import model.PlannerSystem;
 import model.IReadOnlyModel;
 import model.User;
 
@@ -48,16 +46,20 @@ public class EventFrame extends JFrame implements IEventView {
   private JTextField endTimeField;
   private JList<String> userList;
   private IReadOnlyModel readOnlyModel;
+  private IPlannerViewListener listener;
   private JComboBox<String> userComboBox;
 
   /**
    * Constructs an EventFrame with the given model.
    * This frame allows the user to create, modify, and remove events.
+   * The events are removed through the listener, so the change goes through the controller.
    *
-   * @param model the model to use
+   * @param model    the model to use
+   * @param listener the listener that carries out the user's changes
    */
-  public EventFrame(IReadOnlyModel model) {
+  public EventFrame(IReadOnlyModel model, IPlannerViewListener listener) {
     this.readOnlyModel = model;
+    this.listener = listener;
 
     eventNameField = new JTextField();
     locationField = new JTextField();
@@ -163,7 +165,7 @@ public class EventFrame extends JFrame implements IEventView {
         } else {
           User user = readOnlyModel.getUserByName(selectedUser);
           Event event = user.getSchedule().getEvents().get(userList.getSelectedIndex());
-          user.getSchedule().getEvents().remove(event);
+          listener.onEventRemove(event.getId(), user.getId());
           MainSystemFrame.refreshScheduleDisplay();
           SaturdayViewFrame.refreshScheduleDisplay();
           System.out.println("Event removed: " + event);
@@ -192,21 +194,6 @@ public class EventFrame extends JFrame implements IEventView {
     setVisible(true);
   }
 
-  /**
-   * Main method to run the EventFrame.
-   *
-   * @param args the command line arguments
-   */
-  public static void main(String[] args) {
-    SwingUtilities.invokeLater(new Runnable() {
-      @Override
-      public void run() {
-        IReadOnlyModel model = new PlannerSystem();
-        new EventFrame(model);
-      }
-    });
-  }
-
   @Override
   public void initializeUserComboBox() {
     DefaultComboBoxModel<String> userModel = new DefaultComboBoxModel<>();
@@ -0,0 +1,123 @@
+package view;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import model.Event;
+
+/**
+ * This class represents an index of where the events of a schedule were drawn, which finds
+ * the event under a point without looking at every event.
+ * The rectangles are put in one bucket per day column, sorted by their top. Every bucket
+ * also keeps the lowest bottom of each prefix of its rectangles, which tells where the
+ * rectangles that can still reach down to a point begin, so a lookup binary searches one
+ * bucket and only reads the rectangles around the point.
+ * When rectangles overlap, the one drawn last, which is the one on top, is found.
+ * The index does not change; a new one is built when the events are laid out again.
+ */
+final class EventHitIndex {
+  private final int dayWidth;
+  private final Bucket[] buckets;
+
+  /**
+   * Builds the index of the events, in the order they were drawn.
+   *
+   * @param events   the events
+   * @param bounds   the rectangle each event was drawn in
+   * @param dayWidth the width of a day column
+   * @param days     the number of day columns
+   */
+  EventHitIndex(List<Event> events, Rectangle[] bounds, int dayWidth, int days) {
+    this.dayWidth = dayWidth;
+    List<List<Integer>> columns = new ArrayList<>();
+    for (int day = 0; day < days; day++) {
+      columns.add(new ArrayList<>());
+    }
+    if (dayWidth > 0) {
+      for (int i = 0; i < bounds.length; i++) {
+        Rectangle rect = bounds[i];
+        if (rect.isEmpty()) {
+          continue;
+        }
+        int first = Math.max(0, rect.x / dayWidth);
+        int last = Math.min(days - 1, (rect.x + rect.width - 1) / dayWidth);
+        for (int day = first; day <= last; day++) {
+          columns.get(day).add(i);
+        }
+      }
+    }
+    this.buckets = new Bucket[days];
+    for (int day = 0; day < days; day++) {
+      buckets[day] = new Bucket(columns.get(day), events, bounds);
+    }
+  }
+
+  /**
+   * Gets the event drawn at a point.
+   *
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @return the event on top at the point, or null if there is none
+   */
+  Event eventAt(int x, int y) {
+    if (dayWidth <= 0 || x < 0 || x / dayWidth >= buckets.length) {
+      return null;
+    }
+    return buckets[x / dayWidth].eventAt(x, y);
+  }
+
+  /**
+   * The rectangles in one day column, sorted by top.
+   */
+  private static class Bucket {
+    private final Event[] events;
+    private final Rectangle[] bounds;
+    private final int[] order;
+    private final int[] tops;
+    private final int[] maxBottoms;
+
+    Bucket(List<Integer> drawOrder, List<Event> allEvents, Rectangle[] allBounds) {
+      Integer[] sorted = drawOrder.toArray(new Integer[0]);
+      // A stable sort keeps the rectangles with the same top in the order they were drawn
+      Arrays.sort(sorted, Comparator.comparingInt((Integer i) -> allBounds[i].y));
+      this.events = new Event[sorted.length];
+      this.bounds = new Rectangle[sorted.length];
+      this.order = new int[sorted.length];
+      this.tops = new int[sorted.length];
+      this.maxBottoms = new int[sorted.length];
+      int maxBottom = Integer.MIN_VALUE;
+      for (int i = 0; i < sorted.length; i++) {
+        events[i] = allEvents.get(sorted[i]);
+        bounds[i] = allBounds[sorted[i]];
+        order[i] = sorted[i];
+        tops[i] = bounds[i].y;
+        maxBottom = Math.max(maxBottom, bounds[i].y + bounds[i].height);
+        maxBottoms[i] = maxBottom;
+      }
+    }
+
+    Event eventAt(int x, int y) {
+      // Find the last rectangle whose top is at or above the point
+      int low = 0;
+      int high = tops.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (tops[mid] <= y) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      int found = -1;
+      for (int i = low - 1; i >= 0 && maxBottoms[i] > y; i--) {
+        if (bounds[i].contains(x, y) && (found < 0 || order[i] > order[found])) {
+          found = i;
+        }
+      }
+      return found < 0 ? null : events[found];
+    }
+  }
+}
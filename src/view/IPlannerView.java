@@ -16,6 +16,28 @@ public interface IPlannerView {
    */
   void updateSchedule(List<Event> events);
 
+  /**
+   * Adds an event to the schedule of a user on the view, if the view shows it.
+   * Only the part of the view that shows the event is updated.
+   * @param userId The ID of the user whose schedule changed.
+   * @param event The added event.
+   */
+  void eventAdded(String userId, Event event);
+
+  /**
+   * Removes an event from the schedule of a user on the view, if the view shows it.
+   * @param userId The ID of the user whose schedule changed.
+   * @param eventId The ID of the removed event.
+   */
+  void eventRemoved(String userId, long eventId);
+
+  /**
+   * Replaces the event with the same ID on the schedule of a user on the view.
+   * @param userId The ID of the user whose schedule changed.
+   * @param updatedEvent The event after the change.
+   */
+  void eventModified(String userId, Event updatedEvent);
+
   /**
    * Sets the listener for user actions within the view.
    * The controller implements the listener interface and registers itself with the view.
@@ -24,4 +24,23 @@ public interface IPlannerViewListener {
    */
   void onScheduleLoad(String filePath, User user);
 
+  /**
+   * Called when the user removes an event. The event is given by its ID, so the view does
+   * not need to keep the event object it showed.
+   *
+   * @param eventId the ID of the event to remove
+   * @param userId the user ID of the schedule to remove it from
+   */
+  void onEventRemove(long eventId, String userId);
+
+  /**
+   * Called when the user modifies an event. The event is given by its ID, so the view does
+   * not need to keep the event object it showed.
+   *
+   * @param eventId the ID of the event to modify
+   * @param updatedEvent the new version of the event
+   * @param userId the user ID of the schedule the event is on
+   */
+  void onEventModify(long eventId, Event updatedEvent, String userId);
+
 }
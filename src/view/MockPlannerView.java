@@ -20,6 +20,21 @@ public class MockPlannerView implements IPlannerView {
     }
   }
 
+  @Override
+  public void eventAdded(String userId, Event event) {
+    System.out.println("Added for " + userId + ": " + event);
+  }
+
+  @Override
+  public void eventRemoved(String userId, long eventId) {
+    System.out.println("Removed for " + userId + ": " + eventId);
+  }
+
+  @Override
+  public void eventModified(String userId, Event updatedEvent) {
+    System.out.println("Modified for " + userId + ": " + updatedEvent);
+  }
+
   @Override
   public void setListener(IPlannerViewListener listener) {
     System.out.println("Listener set");
@@ -1,31 +1,61 @@
 package view;
 
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 import controller.PlannerController;
 import model.AnytimeSchedulingStrategy;
 import model.LenientSchedulingStrategy;
+import model.PlannerJournal;
 import model.PlannerSystem;
 import model.ISchedulingStrategy;
 import model.WorkHoursSchedulingStrategy;
 
 /**
  * This class represents the GUI for the planner system.
+ * By default the schedules are read from john.xml and jane.xml on every start, and changes
+ * are not saved. With the SAVED_OPTION argument the planner is started from planner.snapshot
+ * and planner.journal instead, and every change is saved in them. The XML files are then
+ * only read on the first start, so later edits to them are not seen, and the events stay in
+ * the week they were read in. Delete the two files to read the XML files again.
  */
 public class PlannerRunner {
+  /**
+   * The argument that starts the planner from its saved snapshot and journal.
+   */
+  public static final String SAVED_OPTION = "--saved";
+
+  private static final String SNAPSHOT_FILE = "planner.snapshot";
+  private static final String JOURNAL_FILE = "planner.journal";
+
   /**
    * The main method for the planner system.
    *
-   * @param args the command line arguments
+   * @param args the command line arguments: the scheduling strategy, and SAVED_OPTION to
+   *             start from the saved planner
    */
   public static void main(String[] args) {
-    PlannerSystem model = new PlannerSystem();
+    boolean saved = false;
+    String strategyName = null;
+    for (String arg : args) {
+      if (SAVED_OPTION.equals(arg)) {
+        saved = true;
+      } else if (strategyName == null) {
+        strategyName = arg;
+      }
+    }
+    PlannerSystem model = saved
+            ? loadModel(Paths.get(SNAPSHOT_FILE), Paths.get(JOURNAL_FILE))
+            : new PlannerSystem();
     MainSystemFrame view = new MainSystemFrame(model);
     PlannerController controller = new PlannerController(model, view);
 
     // Check for command-line arguments and set the scheduling strategy accordingly
-    if (args.length > 0) {
+    if (strategyName != null) {
       ISchedulingStrategy strategy;
-      switch (args[0].toLowerCase()) {
+      switch (strategyName.toLowerCase()) {
         case "anytime":
           strategy = new AnytimeSchedulingStrategy();
           break;
@@ -50,5 +80,29 @@ public class PlannerRunner {
 
   }
 
-}
+  /**
+   * Starts the model from the snapshot and journal if there are any, because that is much
+   * faster than parsing the XML files. Otherwise the XML files are read and a snapshot is
+   * saved for the next start. Every later change is recorded in the journal.
+   */
+  private static PlannerSystem loadModel(Path snapshot, Path journalFile) {
+    PlannerJournal journal = new PlannerJournal(journalFile, snapshot);
+    try {
+      PlannerSystem model;
+      if (journal.exists()) {
+        model = new PlannerSystem(journal.recover());
+      } else {
+        model = new PlannerSystem();
+        journal.recover();
+        journal.compact(model.getUsers());
+      }
+      model.setJournal(journal);
+      return model;
+    } catch (IOException e) {
+      System.out.println("Could not read " + snapshot + " and " + journalFile
+              + ", loading the XML files without saving changes.");
+      return new PlannerSystem();
+    }
+  }
 
+}
@@ -0,0 +1,24 @@
+package view;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+
+import model.Event;
+
+/**
+ * This class represents the SaturdayEventDrawer.
+ * This class is used to draw the event on a calendar whose weeks start on Saturday, so
+ * Saturday is the first column and Friday the last.
+ */
+public class SaturdayEventDrawer extends DefaultEventDrawer {
+  @Override
+  public Rectangle getBounds(Event event, Dimension size) {
+    int dayIndex = (event.getStartTime().getDayOfWeek().getValue() + 1) % 7;
+    int hourHeight = size.height / 24;
+    int startY = event.getStartTime().getHour() * hourHeight
+            + event.getStartTime().getMinute() * hourHeight / 60;
+    int endY = event.getEndTime().getHour() * hourHeight
+            + event.getEndTime().getMinute() * hourHeight / 60;
+    return new Rectangle(dayIndex * size.width, startY, size.width, endY - startY);
+  }
+}
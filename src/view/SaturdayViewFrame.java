@@ -1,13 +1,10 @@
 package view;
 
-import java.awt.BasicStroke;
 import java.awt.BorderLayout;
-import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.Stroke;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
@@ -21,7 +18,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.JButton;
 import javax.swing.JComboBox;
@@ -33,6 +32,7 @@ import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.JMenu;
 
 import model.Event;
@@ -47,6 +47,7 @@ import model.User;
  * Starting from Saturday to Friday.
  */
 public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerViewListener {
+  private static final LocalDate WEEK_START = LocalDate.of(2024, 4, 27);
   private static JPanel schedulePanel;
   private JButton createEventButton;
   private JButton scheduleEventButton;
@@ -55,7 +56,10 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
   private JComboBox<String> userComboBox;
   private final SaturdayPlanner readOnlyModel; // Use SaturdayPlanner specifically for the view
 
+  private final ScheduleRenderer renderer;
   private List<Event> currentEvents;
+  private SwingWorker<?, ?> pendingWork;
+  private String currentUserId;
   private IPlannerViewListener viewListener;
 
   private boolean hostColorModeEnabled = false;
@@ -67,7 +71,7 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
    */
   public SaturdayViewFrame(SaturdayPlanner model) {
     this.readOnlyModel = model;
-    EventDrawer eventDrawer = new DefaultEventDrawer();
+    this.renderer = new ScheduleRenderer(new SaturdayEventDrawer());
     initializeMenu();
     initializeSchedulePanel();
     initializeButtons();
@@ -120,12 +124,7 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
         if (selectedUser != null) {
           User user = readOnlyModel.getUserByName(selectedUser);
           if (user != null) {
-            currentEvents = readOnlyModel.getEventsForWeekStarting(user, LocalDate.of(2024, 4, 27));
-            if (currentEvents != null) {
-              schedulePanel.repaint();
-            } else {
-              System.out.println("The event list for the user is null.");
-            }
+            showEventsOf(user);
           } else {
             System.out.println("No user found with the name: " + selectedUser);
           }
@@ -149,40 +148,29 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
 
     fileMenu.add(addCalendarMenuItem);
     fileMenu.add(saveCalendarsMenuItem);
+    JMenu viewMenu = new JMenu("View");
+    JMenuItem overviewMenuItem = new JMenuItem("Month and year overview");
+    overviewMenuItem.addActionListener(e -> openOverview());
+    viewMenu.add(overviewMenuItem);
+
     menuBar.add(fileMenu);
+    menuBar.add(viewMenu);
     setJMenuBar(menuBar);
   }
 
-  private void drawEvent(Graphics g, Event event, int dayIndex) {
-    Graphics2D g2d = (Graphics2D) g;
-    Dimension size = new Dimension(getWidth() / 7, getHeight());
-    int startX = dayIndex * size.width;
-    int startY = calculateYPosition(event.getStartTime());
-    int endY = calculateYPosition(event.getEndTime());
-    int height = endY - startY;
-    g2d.setColor(Color.RED);
-    g2d.fillRect(startX, startY, size.width, height);
-  }
-
-  private int calculateYPosition(LocalDateTime startTime) {
-    int hourHeight = getHeight() / 24;
-    return startTime.getHour() * hourHeight + startTime.getMinute() * hourHeight / 60;
-  }
-
   private void initializeSchedulePanel() {
     schedulePanel = new JPanel() {
       @Override
       protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        drawScheduleGrid(g);
-        if (currentEvents != null && !currentEvents.isEmpty()) {
-          for (Event event : currentEvents) {
-            DayOfWeek dayOfWeek = event.getStartTime().getDayOfWeek();
-            int dayIndex = (dayOfWeek.getValue() + 1) % 7;
-            drawEvent(g, event, dayIndex);
-            System.out.println("Drawing event: " + event.getName());
-          }
-        }
+        renderer.update(currentEvents, (String) userComboBox.getSelectedItem(),
+                hostColorModeEnabled);
+        renderer.paint(g, getWidth(), getHeight());
+      }
+
+      @Override
+      public String getToolTipText(MouseEvent e) {
+        return ScheduleRenderer.describe(renderer.eventAt(e.getX(), e.getY()));
       }
 
     };
@@ -203,7 +191,7 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
         LocalTime time = LocalTime.of(hourIndex, 0);
         LocalDate date = LocalDate.now().with(TemporalAdjusters.nextOrSame(day));
         LocalDateTime startDateTime = LocalDateTime.of(date, time);
-        EventFrame eventFrame = new EventFrame(readOnlyModel);
+        EventFrame eventFrame = new EventFrame(readOnlyModel, SaturdayViewFrame.this);
         eventFrame.setStartTime(startDateTime);
         eventFrame.setVisible(true);
       }
@@ -213,42 +201,16 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
     schedulePanel.addMouseListener(new MouseAdapter() {
       @Override
       public void mouseClicked(MouseEvent e) {
-        int clickedX = e.getX();
-        int clickedY = e.getY();
-
-        int dayWidth = getWidth() / 7;
-        int hourHeight = getHeight() / 24;
-
-        int clickedDayIndex = clickedX / dayWidth + 1;
-        LocalTime timeClicked = LocalTime.of(clickedY / hourHeight, 0);
-
-        for (Event event : currentEvents) {
-          if (eventOccursDuringClick(event, clickedDayIndex, timeClicked)) {
-            EventFrame eventFrame = new EventFrame(readOnlyModel);
-            eventFrame.populateEventDetails(event);
-            eventFrame.setVisible(true);
-            break;
-          }
+        Event event = renderer.eventAt(e.getX(), e.getY());
+        if (event != null) {
+          EventFrame eventFrame = new EventFrame(readOnlyModel, SaturdayViewFrame.this);
+          eventFrame.populateEventDetails(event);
+          eventFrame.setVisible(true);
         }
       }
-
-      private boolean eventOccursDuringClick(Event event, int clickedDayIndex,
-                                             LocalTime timeClicked) {
-        DayOfWeek dayOfWeekEventStart = event.getStartTime().getDayOfWeek();
-        DayOfWeek dayOfWeekEventEnd = event.getEndTime().getDayOfWeek();
-        DayOfWeek dayClicked = DayOfWeek.of(clickedDayIndex);
-
-        boolean isSameDay = (dayOfWeekEventStart.equals(dayClicked)
-                || dayOfWeekEventEnd.equals(dayClicked));
-        boolean isSameTime = (timeClicked.equals(event.getStartTime().toLocalTime())
-                || timeClicked.isAfter(event.getStartTime().toLocalTime()))
-                && (timeClicked.isBefore(event.getEndTime().toLocalTime()));
-
-        return isSameDay && isSameTime;
-      }
     });
-
-
+    // Registers the panel with the tooltip manager, which then asks for the text on hover
+    schedulePanel.setToolTipText("");
   }
 
   private void initializeButtons() {
@@ -260,7 +222,7 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
 
       @Override
       public void actionPerformed(ActionEvent e) {
-        EventFrame eventFrame = new EventFrame(readOnlyModel);
+        EventFrame eventFrame = new EventFrame(readOnlyModel, SaturdayViewFrame.this);
         eventFrame.setVisible(true);
       }
     });
@@ -279,7 +241,7 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
       @Override
       public void actionPerformed(ActionEvent e) {
         hostColorModeEnabled = !hostColorModeEnabled;
-        schedulePanel.repaint();  // Repaint the panel to reflect changes
+        repaintEvents();
         System.out.println("Host color mode " + (hostColorModeEnabled ? "enabled" : "disabled"));
       }
     });
@@ -308,35 +270,70 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
     setVisible(true);
   }
 
-  private void drawScheduleGrid(Graphics g) {
-    Graphics2D g2d = (Graphics2D) g;
-    int panelHeight = schedulePanel.getHeight();
-    int panelWidth = schedulePanel.getWidth();
-
-    int hourHeight = panelHeight / 24;
-    int dayWidth = panelWidth / 7;
-
+  /**
+   * Repaints the part of the schedule panel that changed with the current events.
+   */
+  private void repaintEvents() {
+    Rectangle dirty = renderer.update(currentEvents, (String) userComboBox.getSelectedItem(),
+            hostColorModeEnabled);
+    if (dirty != null) {
+      schedulePanel.repaint(dirty);
+    }
+  }
 
-    g2d.setColor(Color.LIGHT_GRAY);
-    Stroke defaultStroke = g2d.getStroke();
+  /**
+   * Shows the events of a user, which are fetched away from the event dispatch thread.
+   */
+  private void showEventsOf(User user) {
+    startWork(new SwingWorker<List<Event>, Void>() {
+      @Override
+      protected List<Event> doInBackground() {
+        return readOnlyModel.getEventsForWeekStarting(user, WEEK_START);
+      }
 
-    // Draw hour lines
-    for (int i = 0; i <= 24; i++) {
-      if (i % 4 == 0) { // Bold line for every fourth hour
-        g2d.setStroke(new BasicStroke(2));
-        g2d.setColor(Color.BLACK);
-      } else {
-        g2d.setStroke(defaultStroke);
-        g2d.setColor(Color.LIGHT_GRAY);
+      @Override
+      protected void done() {
+        if (isCancelled()) {
+          return;
+        }
+        try {
+          List<Event> events = get();
+          if (events != null) {
+            currentUserId = user.getId();
+            currentEvents = events;
+            repaintEvents();
+          } else {
+            System.out.println("The event list for the user is null.");
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+          showError("Error fetching events: " + e.getCause().getMessage());
+        }
       }
-      g2d.drawLine(0, i * hourHeight, panelWidth, i * hourHeight);
-      g2d.setStroke(defaultStroke);
-      g2d.setColor(Color.LIGHT_GRAY);
+    });
+  }
+
+  /**
+   * Starts work in the background. The work started before it is cancelled, since the user
+   * has asked for something else and its result would only be thrown away.
+   */
+  private void startWork(SwingWorker<?, ?> work) {
+    if (pendingWork != null) {
+      pendingWork.cancel(true);
     }
+    pendingWork = work;
+    work.execute();
+  }
 
-    for (int i = 0; i <= 7; i++) {
-      g2d.drawLine(i * dayWidth, 0, i * dayWidth, panelHeight);
+  private void openOverview() {
+    User user = readOnlyModel.getUserByName((String) userComboBox.getSelectedItem());
+    if (user == null) {
+      showError("Select a user to see the overview of.");
+      return;
     }
+    new CalendarOverviewFrame(readOnlyModel, user, new SaturdayEventDrawer(),
+            DayOfWeek.SATURDAY).setVisible(true);
   }
 
   private void openFileChooserForLoad() {
@@ -344,24 +341,30 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
     int option = fileChooser.showOpenDialog(this);
     if (option == JFileChooser.APPROVE_OPTION) {
       File selectedFile = fileChooser.getSelectedFile();
-      System.out.println("Load XML file: " + selectedFile.getAbsolutePath());
-
-      PlannerSystem plannerSystem = new PlannerSystem();
+      // The file is shown on its own, read into a user that is not part of the planner
       User currentUser = new User("1", "Host");
-      boolean isUploaded = plannerSystem.
-              uploadSchedule(selectedFile.getAbsolutePath(), currentUser);
-
-      for (Event event : currentUser.getSchedule().getEvents()) {
-        System.out.println(event.getName());
-      }
-      if (isUploaded) {
-        // Schedule uploaded successfully, now update the view
-        currentEvents = currentUser.getSchedule().getEvents(); // Get the updated events
-        schedulePanel.repaint();
-      } else {
+      currentUserId = null;
+      currentEvents = new ArrayList<>();
+      repaintEvents();
+      startWork(new ScheduleLoadWorker(new PlannerSystem(new ArrayList<>()), selectedFile,
+              currentUser, this) {
+        @Override
+        protected void eventsLoaded(List<Event> events) {
+          List<Event> shown = new ArrayList<>(currentEvents);
+          shown.addAll(events);
+          currentEvents = shown;
+          repaintEvents();
+        }
 
-        System.out.println("Failed to upload schedule from XML.");
-      }
+        @Override
+        protected void loadFinished(boolean loaded, Throwable error) {
+          if (error != null) {
+            showError("Error loading schedule: " + error.getMessage());
+          } else if (!loaded && !isCancelled()) {
+            showError("Failed to upload schedule from XML.");
+          }
+        }
+      });
     }
   }
 
@@ -371,7 +374,7 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
     int option = fileChooser.showSaveDialog(this);
     if (option == JFileChooser.APPROVE_OPTION) {
       File selectedDirectory = fileChooser.getSelectedFile();
-      System.out.println("Save to directory: " + selectedDirectory.getAbsolutePath());
+      new ScheduleSaveWorker(readOnlyModel, selectedDirectory, this).execute();
     }
   }
 
@@ -379,7 +382,50 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
   @Override
   public void updateSchedule(List<Event> events) {
     currentEvents = events;
-    schedulePanel.repaint();
+    repaintEvents();
+  }
+
+  @Override
+  public void eventAdded(String userId, Event event) {
+    if (userId.equals(currentUserId) && currentEvents != null && isInWeek(event)) {
+      List<Event> events = new ArrayList<>(currentEvents);
+      events.add(event);
+      currentEvents = events;
+      repaintEvents();
+    }
+  }
+
+  @Override
+  public void eventRemoved(String userId, long eventId) {
+    if (userId.equals(currentUserId) && currentEvents != null) {
+      List<Event> events = new ArrayList<>(currentEvents);
+      if (events.removeIf(event -> event.getId() == eventId)) {
+        currentEvents = events;
+        repaintEvents();
+      }
+    }
+  }
+
+  @Override
+  public void eventModified(String userId, Event updatedEvent) {
+    if (userId.equals(currentUserId) && currentEvents != null) {
+      List<Event> events = new ArrayList<>(currentEvents);
+      events.removeIf(event -> event.getId() == updatedEvent.getId());
+      if (isInWeek(updatedEvent)) {
+        events.add(updatedEvent);
+      }
+      currentEvents = events;
+      repaintEvents();
+    }
+  }
+
+  /**
+   * Checks if an event is in the week this view shows, the same way the model picks the
+   * events of the week.
+   */
+  private boolean isInWeek(Event event) {
+    return !event.getStartTime().isBefore(WEEK_START.atStartOfDay())
+            && event.getStartTime().isBefore(WEEK_START.plusDays(7).atStartOfDay());
   }
 
   @Override
@@ -402,4 +448,14 @@ public class SaturdayViewFrame extends JFrame implements IPlannerView, IPlannerV
     viewListener.onScheduleLoad(filePath, user);
   }
 
+  @Override
+  public void onEventRemove(long eventId, String userId) {
+    viewListener.onEventRemove(eventId, userId);
+  }
+
+  @Override
+  public void onEventModify(long eventId, Event updatedEvent, String userId) {
+    viewListener.onEventModify(eventId, updatedEvent, userId);
+  }
+
 }
@@ -0,0 +1,136 @@
+package view;
+
+import java.awt.Component;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+
+import model.Event;
+import model.IPlannerSystemModel;
+import model.IScheduleImportListener;
+import model.User;
+
+/**
+ * This class represents the loading of a schedule file away from the event dispatch thread.
+ * The file is read on a worker thread, and the events are handed to the view on the event
+ * dispatch thread in batches while the rest of the file is still read, so a large file
+ * shows up as it loads and the window keeps responding.
+ * A progress monitor shows how many events were read and lets the user cancel. The events
+ * read before the load was cancelled stay on the schedule, as after a read error.
+ * Subclasses say what the view does with the events and with the result.
+ */
+public abstract class ScheduleLoadWorker extends SwingWorker<Boolean, Event> {
+  private static final int POLL_MILLIS = 100;
+
+  private final IPlannerSystemModel model;
+  private final String filePath;
+  private final User user;
+  private final ProgressMonitor monitor;
+  private final Timer poll;
+  private volatile int eventsRead;
+
+  /**
+   * Constructs a worker that loads a file into the schedule of a user.
+   *
+   * @param model  the model to load the file with
+   * @param file   the file to load
+   * @param user   the user whose schedule the events are added to
+   * @param parent the component the progress monitor is shown over
+   */
+  public ScheduleLoadWorker(IPlannerSystemModel model, File file, User user,
+                            Component parent) {
+    if (model == null || file == null || user == null) {
+      throw new IllegalArgumentException("Model, file and user cannot be null.");
+    }
+    this.model = model;
+    this.filePath = file.getAbsolutePath();
+    this.user = user;
+    this.monitor = new ProgressMonitor(parent, "Loading " + file.getName(), "", 0, 1);
+    // The monitor is a Swing component, so it is only read and updated from the timer
+    this.poll = new Timer(POLL_MILLIS, e -> {
+      if (monitor.isCanceled()) {
+        cancel(true);
+      } else {
+        monitor.setNote(eventsRead + " events read");
+        monitor.setProgress(0);
+      }
+    });
+  }
+
+  @Override
+  protected Boolean doInBackground() {
+    // The timer is only started once the worker runs, so a worker that is never executed
+    // leaves nothing behind, and not at all if the worker was cancelled in the meantime
+    SwingUtilities.invokeLater(() -> {
+      if (!isDone()) {
+        poll.start();
+      }
+    });
+    return model.uploadSchedule(filePath, user, new IScheduleImportListener() {
+      @Override
+      public void onEvent(Event event) {
+        publish(event);
+      }
+
+      @Override
+      public void onEventError(int eventNumber, String message) {
+        // A bad event is skipped, like when the file is loaded without a view
+      }
+
+      @Override
+      public void onProgress(int count) {
+        eventsRead = count;
+        if (isCancelled()) {
+          throw new CancellationException("Loading " + filePath + " was cancelled.");
+        }
+      }
+    });
+  }
+
+  @Override
+  protected final void process(List<Event> events) {
+    if (!isCancelled()) {
+      eventsLoaded(events);
+    }
+  }
+
+  @Override
+  protected final void done() {
+    poll.stop();
+    monitor.close();
+    if (isCancelled()) {
+      loadFinished(false, null);
+      return;
+    }
+    try {
+      loadFinished(get(), null);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      loadFinished(false, e);
+    } catch (ExecutionException e) {
+      loadFinished(false, e.getCause());
+    }
+  }
+
+  /**
+   * Called on the event dispatch thread with the next events that were read, in the order
+   * they are in the file.
+   *
+   * @param events the events
+   */
+  protected abstract void eventsLoaded(List<Event> events);
+
+  /**
+   * Called on the event dispatch thread when the load is over.
+   *
+   * @param loaded whether the whole file was read
+   * @param error  what went wrong, or null if the file was read or the load was cancelled
+   */
+  protected abstract void loadFinished(boolean loaded, Throwable error);
+}
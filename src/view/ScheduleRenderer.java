@@ -0,0 +1,266 @@
+package view;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Stroke;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import model.Event;
+
+/**
+ * This class represents the renderer of the week grid of a schedule.
+ * It draws in two cached layers: the grid, which is only drawn again when the size changes,
+ * and the events, which are only drawn again when the events change. Painting the schedule
+ * then copies the two images.
+ * When only a few events change, only the rectangles those events were and are now drawn in
+ * are cleared and drawn again, and update returns that region so the panel can repaint just
+ * that part. Where every event was drawn is also kept to find the event under the mouse.
+ */
+public class ScheduleRenderer {
+  private static final Stroke BOLD = new BasicStroke(2);
+  private static final int DAYS = 7;
+  private static final int HOURS = 24;
+  private static final int MAX_CHANGED_EVENTS = 16;
+
+  private final EventDrawer eventDrawer;
+  private BufferedImage gridLayer;
+  private BufferedImage eventLayer;
+  private int width;
+  private int height;
+  private List<Event> events;
+  private String hostId;
+  private boolean hostMode;
+  private Map<Long, Rectangle> drawn;
+  private List<Event> laidOut;
+  private Rectangle[] laidOutBounds;
+  private EventHitIndex hitIndex;
+
+  /**
+   * Constructs a renderer that draws the events with the given drawer.
+   *
+   * @param eventDrawer the drawer of a single event
+   */
+  public ScheduleRenderer(EventDrawer eventDrawer) {
+    this.eventDrawer = eventDrawer;
+    this.drawn = new HashMap<>();
+  }
+
+  /**
+   * Sets the events to draw. The event layer is drawn again only where something changed.
+   *
+   * @param events   the events, or null for none
+   * @param hostId   the user the host colors are for
+   * @param hostMode true to color the events the user hosts
+   * @return the region of the panel that changed, or null if nothing did
+   */
+  public Rectangle update(List<Event> events, String hostId, boolean hostMode) {
+    if (events == this.events && Objects.equals(hostId, this.hostId)
+            && hostMode == this.hostMode) {
+      return null;
+    }
+    boolean colorsChanged = !Objects.equals(hostId, this.hostId) || hostMode != this.hostMode;
+    this.events = events;
+    this.hostId = hostId;
+    this.hostMode = hostMode;
+    if (eventLayer == null) {
+      return null;
+    }
+    if (colorsChanged) {
+      drawEvents();
+      return new Rectangle(0, 0, width, height);
+    }
+    List<Rectangle> regions = changedRegions();
+    if (regions == null) {
+      drawEvents();
+      return new Rectangle(0, 0, width, height);
+    }
+    return regions.isEmpty() ? null : redraw(regions);
+  }
+
+  /**
+   * Gets the event drawn at a point of the panel, as it was last painted.
+   * The first lookup after the events are laid out builds an index of where they are, so
+   * lookups, for example for every mouse move, take O(log n).
+   *
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @return the event on top at the point, or null if there is none
+   */
+  public Event eventAt(int x, int y) {
+    if (laidOutBounds == null) {
+      return null;
+    }
+    if (hitIndex == null) {
+      hitIndex = new EventHitIndex(laidOut, laidOutBounds, width / DAYS, DAYS);
+    }
+    return hitIndex.eventAt(x, y);
+  }
+
+  /**
+   * Gets the tooltip text of an event, with its name, times and location.
+   *
+   * @param event the event, or null
+   * @return the text, or null if there is no event
+   */
+  public static String describe(Event event) {
+    if (event == null) {
+      return null;
+    }
+    return event.getName() + ": " + event.getStartTime().getDayOfWeek() + " "
+            + event.getStartTime().toLocalTime() + " - " + event.getEndTime().getDayOfWeek()
+            + " " + event.getEndTime().toLocalTime() + ", "
+            + (event.isOnline() ? "online" : event.getLocation());
+  }
+
+  /**
+   * Paints the schedule, drawing the layers again first if the size changed.
+   *
+   * @param g      the graphics to paint on
+   * @param width  the width of the panel
+   * @param height the height of the panel
+   */
+  public void paint(Graphics g, int width, int height) {
+    if (width <= 0 || height <= 0) {
+      return;
+    }
+    if (gridLayer == null || width != this.width || height != this.height) {
+      this.width = width;
+      this.height = height;
+      gridLayer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+      eventLayer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+      drawGrid();
+      drawEvents();
+    }
+    g.drawImage(gridLayer, 0, 0, null);
+    g.drawImage(eventLayer, 0, 0, null);
+  }
+
+  private void drawGrid() {
+    Graphics2D g2d = gridLayer.createGraphics();
+    int hourHeight = height / HOURS;
+    int dayWidth = width / DAYS;
+    Stroke defaultStroke = g2d.getStroke();
+    for (int i = 0; i <= HOURS; i++) {
+      // Bold line for every fourth hour
+      boolean bold = i % 4 == 0;
+      g2d.setStroke(bold ? BOLD : defaultStroke);
+      g2d.setColor(bold ? Color.BLACK : Color.LIGHT_GRAY);
+      g2d.drawLine(0, i * hourHeight, width, i * hourHeight);
+    }
+    g2d.setStroke(defaultStroke);
+    g2d.setColor(Color.LIGHT_GRAY);
+    for (int i = 0; i <= DAYS; i++) {
+      g2d.drawLine(i * dayWidth, 0, i * dayWidth, height);
+    }
+    g2d.dispose();
+  }
+
+  private void drawEvents() {
+    Graphics2D g2d = eventLayer.createGraphics();
+    g2d.setComposite(AlphaComposite.Clear);
+    g2d.fillRect(0, 0, width, height);
+    g2d.setComposite(AlphaComposite.SrcOver);
+    Rectangle[] bounds = layOut();
+    Dimension size = new Dimension(width / DAYS, height);
+    for (Event event : laidOut) {
+      eventDrawer.drawMainSystem(g2d, event, size, isHost(event));
+    }
+    g2d.dispose();
+    remember(bounds);
+  }
+
+  /**
+   * Clears and draws again the regions of the event layer.
+   *
+   * @return the union of the regions
+   */
+  private Rectangle redraw(List<Rectangle> regions) {
+    Graphics2D g2d = eventLayer.createGraphics();
+    Rectangle[] bounds = layOut();
+    Dimension size = new Dimension(width / DAYS, height);
+    Rectangle dirty = null;
+    for (Rectangle region : regions) {
+      g2d.setClip(region);
+      g2d.setComposite(AlphaComposite.Clear);
+      g2d.fill(region);
+      g2d.setComposite(AlphaComposite.SrcOver);
+      for (int i = 0; i < bounds.length; i++) {
+        if (bounds[i].intersects(region)) {
+          eventDrawer.drawMainSystem(g2d, laidOut.get(i), size, isHost(laidOut.get(i)));
+        }
+      }
+      dirty = dirty == null ? region : dirty.union(region);
+    }
+    g2d.dispose();
+    remember(bounds);
+    return dirty;
+  }
+
+  /**
+   * Gets the regions of the event layer where an event was added, removed or moved since
+   * it was drawn, or null if so many changed that the whole layer should be drawn.
+   */
+  private List<Rectangle> changedRegions() {
+    Rectangle[] bounds = layOut();
+    Map<Long, Rectangle> gone = new HashMap<>(drawn);
+    List<Rectangle> regions = new ArrayList<>();
+    int changed = 0;
+    for (int i = 0; i < bounds.length; i++) {
+      Rectangle before = gone.remove(laidOut.get(i).getId());
+      if (!bounds[i].equals(before)) {
+        changed++;
+        addRegion(regions, bounds[i]);
+        if (before != null) {
+          addRegion(regions, before);
+        }
+      }
+    }
+    for (Rectangle removed : gone.values()) {
+      changed++;
+      addRegion(regions, removed);
+    }
+    return changed > MAX_CHANGED_EVENTS ? null : regions;
+  }
+
+  private static void addRegion(List<Rectangle> regions, Rectangle region) {
+    if (!region.isEmpty()) {
+      regions.add(region);
+    }
+  }
+
+  /**
+   * Gets where every event is drawn at the current size, in the order they are drawn.
+   */
+  private Rectangle[] layOut() {
+    laidOut = events == null ? List.of() : events;
+    Dimension size = new Dimension(width / DAYS, height);
+    Rectangle[] bounds = new Rectangle[laidOut.size()];
+    for (int i = 0; i < bounds.length; i++) {
+      bounds[i] = eventDrawer.getBounds(laidOut.get(i), size);
+    }
+    return bounds;
+  }
+
+  private void remember(Rectangle[] bounds) {
+    drawn = new HashMap<>();
+    for (int i = 0; i < bounds.length; i++) {
+      drawn.put(laidOut.get(i).getId(), bounds[i]);
+    }
+    laidOutBounds = bounds;
+    hitIndex = null;
+  }
+
+  private boolean isHost(Event event) {
+    return hostMode && hostId != null && hostId.equals(event.getHostId());
+  }
+}
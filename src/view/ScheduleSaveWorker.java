@@ -0,0 +1,122 @@
+package view;
+
+import java.awt.Component;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.JOptionPane;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingWorker;
+import javax.xml.stream.XMLStreamException;
+
+import model.IReadOnlyModel;
+import model.ModelSnapshot;
+import model.ScheduleXmlWriter;
+import model.User;
+
+/**
+ * This class represents the saving of every schedule away from the event dispatch thread.
+ * The schedules are read from one snapshot of the model, so they are saved as they were
+ * when the save started even if they change while it runs, and each is written to a file
+ * named after its user in the chosen directory. Characters that cannot be in a file name
+ * are replaced, so every file stays in the directory, and a user whose name is already
+ * taken by another file gets the user ID added to the name.
+ * A progress monitor shows how many schedules were saved and lets the user stop between
+ * two schedules. The result is shown in a message when the save is over.
+ */
+public class ScheduleSaveWorker extends SwingWorker<Integer, Integer> {
+  private final ModelSnapshot snapshot;
+  private final File directory;
+  private final Component parent;
+  private final ProgressMonitor monitor;
+
+  /**
+   * Constructs a worker that saves every schedule of the model.
+   *
+   * @param model     the model to save
+   * @param directory the directory to save the files in
+   * @param parent    the component the progress monitor and the result are shown over
+   */
+  public ScheduleSaveWorker(IReadOnlyModel model, File directory, Component parent) {
+    if (model == null || directory == null) {
+      throw new IllegalArgumentException("Model and directory cannot be null.");
+    }
+    this.snapshot = model.getSnapshot();
+    this.directory = directory;
+    this.parent = parent;
+    this.monitor = new ProgressMonitor(parent, "Saving to " + directory.getName(), "", 0,
+            snapshot.getUsers().size());
+  }
+
+  @Override
+  protected Integer doInBackground() throws IOException, XMLStreamException {
+    ScheduleXmlWriter writer = new ScheduleXmlWriter();
+    Set<String> used = new HashSet<>();
+    int saved = 0;
+    for (User user : snapshot.getUsers()) {
+      if (isCancelled()) {
+        break;
+      }
+      writer.write(new File(directory, fileName(user, used)).toPath(), user.getId(),
+              snapshot.getEvents(user.getId()));
+      saved++;
+      publish(saved);
+    }
+    return saved;
+  }
+
+  /**
+   * Gets the name of the file of a user's schedule that no other user of this save has.
+   * Names are compared ignoring case, as some file systems do.
+   */
+  private static String fileName(User user, Set<String> used) {
+    String base = safe(user.getName());
+    String name = base;
+    for (int i = 1; !used.add(name.toLowerCase(Locale.ROOT)); i++) {
+      name = base + " (" + safe(user.getId()) + (i == 1 ? "" : " " + i) + ")";
+    }
+    return name + ".xml";
+  }
+
+  /**
+   * Replaces every character that could leave the directory or is not allowed in a file
+   * name on some system.
+   */
+  private static String safe(String text) {
+    String safe = text == null ? "" : text.replaceAll("[^\\p{L}\\p{N} ._-]", "_");
+    // A name of only dots, or starting with one, would be hidden or mean a directory
+    return safe.isEmpty() || safe.startsWith(".") ? "_" + safe : safe;
+  }
+
+  @Override
+  protected void process(List<Integer> saved) {
+    if (monitor.isCanceled()) {
+      cancel(false);
+      return;
+    }
+    int count = saved.get(saved.size() - 1);
+    monitor.setNote(count + " of " + snapshot.getUsers().size() + " schedules saved");
+    monitor.setProgress(count);
+  }
+
+  @Override
+  protected void done() {
+    monitor.close();
+    if (isCancelled()) {
+      return;
+    }
+    try {
+      JOptionPane.showMessageDialog(parent, get() + " schedules saved to " + directory + ".");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      JOptionPane.showMessageDialog(parent, "Error saving schedules: "
+              + e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    }
+  }
+}
@@ -5,6 +5,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
@@ -16,6 +17,7 @@ import javax.swing.JPanel;
 import javax.swing.JTextField;
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 
 
 import model.Event;
@@ -90,14 +92,32 @@ public class SchedulingFrame extends JFrame {
         Event event = new Event(eventName, duration, location, online, new ArrayList<>());
 
 
-        // Anytime Scheduling strategy
-        strat.scheduleEvent(event, user, model);
-        JOptionPane.showMessageDialog(SchedulingFrame.this,
-                "Event scheduled for " + event.getStart());
-
-        for (Event s : user.getEvents()) {
-          System.out.println(s);
-        }
+        // The search for a free slot can take a while, so it runs away from the EDT
+        scheduleButton.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+          @Override
+          protected Void doInBackground() {
+            // Anytime Scheduling strategy
+            strat.scheduleEvent(event, user, model);
+            return null;
+          }
+
+          @Override
+          protected void done() {
+            scheduleButton.setEnabled(true);
+            try {
+              get();
+              JOptionPane.showMessageDialog(SchedulingFrame.this,
+                      "Event scheduled for " + event.getStart());
+            } catch (InterruptedException ex) {
+              Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+              JOptionPane.showMessageDialog(SchedulingFrame.this,
+                      "Error scheduling event: " + ex.getCause().getMessage(), "Error",
+                      JOptionPane.ERROR_MESSAGE);
+            }
+          }
+        }.execute();
 
         //MainSystemFrame.refreshScheduleDisplay();
       }
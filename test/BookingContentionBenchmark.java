@@ -0,0 +1,90 @@
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.AnytimeSchedulingStrategy;
+import model.Event;
+import model.PlannerSystem;
+import model.User;
+
+/**
+ * A benchmark of automatic scheduling from many threads at once.
+ * Every booking has a host and two invitees taken from a small group of users, so bookings
+ * keep fighting over the same schedules. For each number of threads it prints how many
+ * bookings per second were made, and checks that no schedule was double booked.
+ * Run it with: java BookingContentionBenchmark [users] [bookings per thread]
+ */
+public class BookingContentionBenchmark {
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args the number of users and the number of bookings per thread
+   * @throws Exception if a booking thread fails
+   */
+  public static void main(String[] args) throws Exception {
+    int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+    int bookings = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+    // One round to warm up the JIT, then the measured rounds
+    run(userCount, bookings, maxThreads, false);
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      run(userCount, bookings, threads, true);
+    }
+  }
+
+  private static void run(int userCount, int bookings, int threads, boolean print)
+          throws Exception {
+    List<User> users = new ArrayList<>();
+    for (int i = 0; i < userCount; i++) {
+      users.add(new User("user" + i, "User " + i));
+    }
+    PlannerSystem system = new PlannerSystem(users);
+    system.setSchedulingStrategy(new AnytimeSchedulingStrategy(5));
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<Integer>> futures = new ArrayList<>();
+    long start = System.nanoTime();
+    for (int t = 0; t < threads; t++) {
+      long seed = t;
+      futures.add(executor.submit(() -> {
+        Random random = new Random(seed);
+        int booked = 0;
+        for (int i = 0; i < bookings; i++) {
+          User host = users.get(random.nextInt(userCount));
+          List<String> invitees = new ArrayList<>();
+          invitees.add(users.get(random.nextInt(userCount)).getId());
+          invitees.add(users.get(random.nextInt(userCount)).getId());
+          Event meeting = new Event("Meeting", Duration.ofMinutes(5 + 5 * random.nextInt(3)),
+                  "Room", false, invitees);
+          system.createEventBasedOnStrategy(host, meeting);
+          booked += meeting.getStartTime() == null ? 0 : 1;
+        }
+        return booked;
+      }));
+    }
+    int booked = 0;
+    for (Future<Integer> future : futures) {
+      booked += future.get();
+    }
+    long nanos = System.nanoTime() - start;
+    executor.shutdown();
+
+    for (User user : users) {
+      List<Event> events = user.getEvents();
+      for (int i = 1; i < events.size(); i++) {
+        if (events.get(i).getStartTime().isBefore(events.get(i - 1).getEndTime())) {
+          throw new IllegalStateException(user.getName() + " is double booked");
+        }
+      }
+    }
+    if (print) {
+      System.out.printf("%2d threads: %6d bookings in %6d ms, %8.0f bookings/s%n", threads,
+              booked, nanos / 1000000, booked * 1e9 / nanos);
+    }
+  }
+}
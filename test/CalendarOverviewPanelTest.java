@@ -0,0 +1,99 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Event;
+import model.PlannerSystem;
+import model.User;
+import view.CalendarOverviewPanel;
+import view.DefaultEventDrawer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * This class tests the CalendarOverviewPanel class.
+ * The weeks start on Sunday 2024-01-07, and the panel is 700 pixels wide, so every day is
+ * 100 pixels wide.
+ */
+public class CalendarOverviewPanelTest {
+  private static final LocalDate FIRST_WEEK = LocalDate.of(2024, 1, 7);
+  private static final int WEEKS = 520;
+
+  private List<LocalDate> queriedWeeks;
+  private CalendarOverviewPanel panel;
+
+  @Before
+  public void setUp() {
+    queriedWeeks = new ArrayList<>();
+    User user = new User("1", "Ada");
+    PlannerSystem model = new PlannerSystem(List.of(user)) {
+      @Override
+      public List<Event> getEventsForWeekStarting(User user, LocalDate startDate) {
+        queriedWeeks.add(startDate);
+        return super.getEventsForWeekStarting(user, startDate);
+      }
+    };
+    // Monday of the first week, from 9 to 17
+    model.createEvent(user, new Event("Workshop", LocalDateTime.of(2024, 1, 8, 9, 0),
+            LocalDateTime.of(2024, 1, 8, 17, 0), "Room", false, List.of("1"), "2"));
+    panel = new CalendarOverviewPanel(model, user, new DefaultEventDrawer(), DayOfWeek.SUNDAY,
+            FIRST_WEEK, WEEKS);
+  }
+
+  @Test
+  public void testOnlyTheWeeksInViewAreRead() {
+    panel.setRowHeight(CalendarOverviewPanel.YEAR_ROW_HEIGHT);
+    int row = panel.getRowHeight();
+    panel.setSize(700, WEEKS * row);
+    paint(0, 4 * row);
+    assertEquals("The four weeks in view", List.of(FIRST_WEEK, FIRST_WEEK.plusWeeks(1),
+            FIRST_WEEK.plusWeeks(2), FIRST_WEEK.plusWeeks(3)), queriedWeeks);
+    paint(0, 4 * row);
+    assertEquals("The weeks are cached", 4, queriedWeeks.size());
+    paint(300 * row, row);
+    assertEquals("Scrolling far reads only the week in view", FIRST_WEEK.plusWeeks(300),
+            queriedWeeks.get(4));
+    assertEquals(5, queriedWeeks.size());
+  }
+
+  @Test
+  public void testYearViewShadesBusyDays() {
+    panel.setRowHeight(CalendarOverviewPanel.YEAR_ROW_HEIGHT);
+    panel.setSize(700, WEEKS * panel.getRowHeight());
+    BufferedImage image = paint(0, panel.getRowHeight());
+    assertNotEquals("Monday is busy", Color.WHITE.getRGB(), image.getRGB(105, 2));
+    assertEquals("Tuesday is free", Color.WHITE.getRGB(), image.getRGB(205, 2));
+  }
+
+  @Test
+  public void testMonthViewDrawsEachEvent() {
+    panel.setSize(700, WEEKS * panel.getRowHeight());
+    BufferedImage image = paint(0, panel.getRowHeight());
+    // The 120 pixel row is one day, so 9 to 17 is 45 to 85
+    assertEquals("The event", Color.RED.getRGB(), image.getRGB(150, 60));
+    assertEquals("Before the event", Color.WHITE.getRGB(), image.getRGB(150, 40));
+    assertEquals("Another day", Color.WHITE.getRGB(), image.getRGB(350, 60));
+  }
+
+  /**
+   * Paints the rows of the panel between two heights, as a scroll pane showing them would.
+   */
+  private BufferedImage paint(int y, int height) {
+    BufferedImage image = new BufferedImage(700, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.translate(0, -y);
+    g.setClip(0, y, 700, height);
+    panel.paint(g);
+    g.dispose();
+    return image;
+  }
+}
@@ -0,0 +1,29 @@
+import org.junit.Test;
+
+import model.ColumnarSchedule;
+import model.ISchedule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for testing functionality of the ColumnarSchedule class, with the tests every
+ * schedule must pass and those that depend on how the columns are kept.
+ */
+public class ColumnarScheduleTest extends ScheduleContractTest {
+  @Override
+  protected ISchedule newSchedule() {
+    return new ColumnarSchedule();
+  }
+
+  @Test
+  public void testRemoveEventAfterItsStartChanged() {
+    schedule.addEvent(morning);
+    schedule.addEvent(afternoon);
+    // The columns are sorted by the start time the event had when it was added
+    morning.setStartTime(morning.getStartTime().minusHours(1));
+    assertTrue("The event is found although its start time moved",
+            schedule.removeEvent(morning));
+    assertEquals(1, ((ColumnarSchedule) schedule).size());
+  }
+}
@@ -0,0 +1,113 @@
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import model.Event;
+
+/**
+ * A report of how much heap events take.
+ * It builds the same events twice, once as Event and once as a copy of the old layout, where
+ * every event kept two LocalDateTime objects, a Duration, an ArrayList of invitees and the
+ * strings themselves, and prints the heap used per event by each.
+ * Names, locations and invitees are taken from small pools, like in a real planner.
+ * Run it with: java EventFootprintReport [events]
+ */
+public class EventFootprintReport {
+
+  /**
+   * Runs the report.
+   *
+   * @param args the number of events
+   */
+  public static void main(String[] args) {
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    long before = usedHeap();
+    List<Object> legacy = build(count, true);
+    long legacyBytes = usedHeap() - before;
+    legacy.clear();
+
+    before = usedHeap();
+    List<Object> compact = build(count, false);
+    long compactBytes = usedHeap() - before;
+
+    // The events are still reachable here, so they were all measured
+    System.out.printf("%,d events (the list holding them is included)%n", compact.size());
+    System.out.printf("old layout: %,d bytes, %d per event%n", legacyBytes,
+            legacyBytes / count);
+    System.out.printf("Event:      %,d bytes, %d per event%n", compactBytes,
+            compactBytes / count);
+    System.out.printf("saved:      %.0f%%%n", 100.0 * (legacyBytes - compactBytes) / legacyBytes);
+  }
+
+  private static List<Object> build(int count, boolean legacy) {
+    Random random = new Random(1);
+    String[] names = new String[200];
+    String[] locations = new String[50];
+    String[] users = new String[1000];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = "Meeting " + i;
+    }
+    for (int i = 0; i < locations.length; i++) {
+      locations[i] = "Room " + i;
+    }
+    for (int i = 0; i < users.length; i++) {
+      users[i] = "user" + i;
+    }
+    LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+    List<Object> events = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      LocalDateTime start = base.plusMinutes(15L * random.nextInt(500_000));
+      LocalDateTime end = start.plusMinutes(15 + 15 * random.nextInt(8));
+      String host = users[random.nextInt(users.length)];
+      List<String> invitees = new ArrayList<>(Arrays.asList(host,
+              users[random.nextInt(users.length)], users[random.nextInt(users.length)]));
+      String name = names[random.nextInt(names.length)];
+      String location = locations[random.nextInt(locations.length)];
+      if (legacy) {
+        events.add(new LegacyEvent(name, start, end, location, false, invitees, host));
+      } else {
+        events.add(new Event(name, start, end, location, false, invitees, host));
+      }
+    }
+    return events;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  /**
+   * The fields an event used to have.
+   */
+  private static class LegacyEvent {
+    private final long id;
+    private final String name;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final String location;
+    private final boolean isOnline;
+    private final List<String> invitees;
+    private final String hostId;
+    private final Duration durationMins;
+
+    LegacyEvent(String name, LocalDateTime startTime, LocalDateTime endTime, String location,
+                boolean isOnline, List<String> invitees, String hostId) {
+      this.id = 0;
+      this.name = name;
+      this.startTime = startTime;
+      this.endTime = endTime;
+      this.location = location;
+      this.isOnline = isOnline;
+      this.invitees = invitees;
+      this.hostId = hostId;
+      this.durationMins = Duration.between(startTime, endTime);
+    }
+  }
+}
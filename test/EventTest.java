@@ -2,7 +2,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -155,4 +157,43 @@ public class EventTest {
               "user1");
     });
   }
+
+  @Test
+  public void testTimesOffTheMinuteAreKept() {
+    // Most times are stored as whole minutes, others must come back unchanged
+    LocalDateTime exact = LocalDateTime.of(2024, 3, 10, 9, 30, 15, 500);
+    Event precise = new Event("Precise", exact, endTime, "Dodge Hall", false, null, null);
+    Assert.assertEquals(exact, precise.getStartTime());
+    Assert.assertEquals(endTime, precise.getEndTime());
+    Assert.assertNull(precise.getInvitees());
+    Assert.assertNull(precise.getHostId());
+    Assert.assertTrue(precise.conflictsWith(event));
+    precise.setStartTime(endTime);
+    Assert.assertFalse("Touching events do not conflict", precise.conflictsWith(event));
+  }
+
+  @Test
+  public void testInviteesAreCopied() {
+    List<String> guests = new ArrayList<>(invitees);
+    Event copy = new Event("Copy", startTime, endTime, "Dodge Hall", true, guests, "user1");
+    guests.add("user3");
+    Assert.assertEquals("Changing the list later does not change the event",
+            invitees, copy.getInvitees());
+  }
+
+  @Test
+  public void testEqualStringsAreStoredOnce() {
+    Event first = new Event("Copy", startTime, endTime, new String("Dodge Hall"), true,
+            invitees, "user1");
+    Event second = new Event("Copy", startTime, endTime, new String("Dodge Hall"), true,
+            invitees, "user1");
+    Assert.assertSame(first.getLocation(), second.getLocation());
+  }
+
+  @Test
+  public void testTooLongDurationIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new Event("Forever", Duration.ofDays(10_000_000), "Dodge Hall", false, invitees);
+    });
+  }
 }
\ No newline at end of file
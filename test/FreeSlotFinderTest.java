@@ -0,0 +1,135 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import model.AnytimeSchedulingStrategy;
+import model.Event;
+import model.FreeSlotFinder;
+import model.OccupancyBitmap;
+import model.PlannerSystem;
+import model.Schedule;
+import model.User;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for testing functionality of the FreeSlotFinder class.
+ * The results are compared against trying every start time one step at a time.
+ */
+public class FreeSlotFinderTest {
+  private LocalDateTime monday;
+  private Schedule host;
+  private Schedule invitee;
+
+  @Before
+  public void setUp() {
+    monday = LocalDateTime.of(2024, 4, 29, 9, 0);
+    host = new Schedule();
+    invitee = new Schedule();
+  }
+
+  private Event event(LocalDateTime start, long minutes) {
+    return new Event("Busy", start, start.plusMinutes(minutes), "Office",
+            false, new ArrayList<>(), "1");
+  }
+
+  @Test
+  public void testEmptySchedulesGiveWindowStart() {
+    assertEquals(monday, FreeSlotFinder.findEarliestSlot(Arrays.asList(host, invitee),
+            monday, monday.plusHours(8), 60, 30));
+  }
+
+  @Test
+  public void testSlotMustFitEveryone() {
+    host.addEvent(event(monday, 60));
+    invitee.addEvent(event(monday.plusMinutes(60), 45));
+    // 09:00-10:00 the host is busy, 10:00-10:45 the invitee, so 11:00 is the next step
+    assertEquals(monday.plusHours(2), FreeSlotFinder.findEarliestSlot(
+            Arrays.asList(host, invitee), monday, monday.plusHours(8), 60, 30));
+    // With a one minute step the slot starts right when the invitee is free
+    assertEquals(monday.plusMinutes(105), FreeSlotFinder.findEarliestSlot(
+            Arrays.asList(host, invitee), monday, monday.plusHours(8), 60, 1));
+  }
+
+  @Test
+  public void testNoSlotInWindow() {
+    host.addEvent(event(monday, 8 * 60));
+    assertNull(FreeSlotFinder.findEarliestSlot(Arrays.asList(host), monday,
+            monday.plusHours(8), 30, 30));
+  }
+
+  @Test
+  public void testMatchesSteppingSearch() {
+    Random random = new Random(7);
+    for (int i = 0; i < 60; i++) {
+      LocalDateTime start = monday.plusMinutes(random.nextInt(5 * 24 * 60));
+      Schedule target = random.nextBoolean() ? host : invitee;
+      Event busy = event(start, 5 + random.nextInt(180));
+      if (target.isAvailable(busy.getStartTime(), busy.getEndTime())) {
+        target.addEvent(busy);
+      }
+    }
+    LocalDateTime end = monday.plusDays(5);
+    for (long duration : new long[]{15, 45, 90, 240}) {
+      for (long step : new long[]{1, 5, 30}) {
+        LocalDateTime expected = null;
+        for (LocalDateTime t = monday; t.isBefore(end); t = t.plusMinutes(step)) {
+          if (host.isAvailable(t, t.plusMinutes(duration))
+                  && invitee.isAvailable(t, t.plusMinutes(duration))) {
+            expected = t;
+            break;
+          }
+        }
+        assertEquals(expected, FreeSlotFinder.findEarliestSlot(Arrays.asList(host, invitee),
+                monday, end, duration, step));
+      }
+    }
+  }
+
+  @Test
+  public void testOccupancyFollowsAddAndRemove() {
+    // Two short events share the 09:00 slot, removing one keeps the slot busy
+    Event first = event(monday, 2);
+    Event second = event(monday.plusMinutes(3), 1);
+    host.addEvent(first);
+    host.addEvent(second);
+    long slot = OccupancyBitmap.slotContaining(monday);
+    assertTrue(host.getOccupancy().isBusy(slot));
+    host.removeEvent(first);
+    assertTrue("The second event still uses the slot", host.getOccupancy().isBusy(slot));
+    host.removeEvent(second);
+    assertFalse(host.getOccupancy().isBusy(slot));
+    assertEquals(monday, FreeSlotFinder.findEarliestSlot(Arrays.asList(host), monday,
+            monday.plusHours(1), 30, 30));
+  }
+
+  @Test
+  public void testStrategyAddsEventOnceToEveryone() {
+    PlannerSystem system = new PlannerSystem();
+    User alice = new User("alice", "Alice");
+    User bob = new User("bob", "Bob");
+    system.addUser(alice);
+    system.addUser(bob);
+    system.setSchedulingStrategy(new AnytimeSchedulingStrategy(1));
+
+    Event meeting = new Event("Sync", Duration.ofMinutes(50), "Room",
+            false, new ArrayList<>(Arrays.asList("alice", "bob")));
+    system.createEventBasedOnStrategy(alice, meeting);
+
+    assertNotNull("The meeting should be given a time", meeting.getStartTime());
+    List<Event> aliceEvents = alice.getSchedule().getEvents();
+    assertEquals("The host is also an invitee but gets the event once", 1, aliceEvents.size());
+    assertTrue(bob.getSchedule().getEvents().contains(meeting));
+    assertFalse(bob.getSchedule().isAvailable(meeting.getStartTime(), meeting.getEndTime()));
+  }
+}
@@ -0,0 +1,13 @@
+import model.ISchedule;
+import model.IntervalTreeSchedule;
+
+/**
+ * Test class for testing functionality of the IntervalTreeSchedule class, with the tests
+ * every schedule must pass.
+ */
+public class IntervalTreeScheduleTest extends ScheduleContractTest {
+  @Override
+  protected ISchedule newSchedule() {
+    return new IntervalTreeSchedule();
+  }
+}
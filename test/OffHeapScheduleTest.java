@@ -0,0 +1,98 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.Event;
+import model.ISchedule;
+import model.OffHeapSchedule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for testing functionality of the OffHeapSchedule class, with the tests every
+ * schedule must pass and those for reading events back from the buffers and files.
+ * The schedule builds new event objects when it is read, so events are compared by ID.
+ */
+public class OffHeapScheduleTest extends ScheduleContractTest {
+  @Override
+  protected ISchedule newSchedule() {
+    return new OffHeapSchedule();
+  }
+
+  @Override
+  protected boolean keepsEventObjects() {
+    return false;
+  }
+
+  @Test
+  public void testEventsAreReadBackWithTheirFields() {
+    Event meeting = new Event("Meeting", morning.getStartTime().plusSeconds(30),
+            morning.getEndTime(), null, true, new ArrayList<>(Arrays.asList("1", "", "2")), "1");
+    schedule.addEvent(meeting);
+    Event read = schedule.getEvent(meeting.getId());
+    assertEquals(meeting, read);
+    assertEquals("Meeting", read.getName());
+    assertEquals(meeting.getStartTime(), read.getStartTime());
+    assertEquals(meeting.getEndTime(), read.getEndTime());
+    assertEquals(null, read.getLocation());
+    assertTrue(read.isOnline());
+    assertEquals(Arrays.asList("1", "", "2"), read.getInvitees());
+    assertEquals("1", read.getHostId());
+    schedule.addEvent(morning);
+    assertEquals(new ArrayList<String>(), schedule.getEvent(morning.getId()).getInvitees());
+  }
+
+  @Test
+  public void testMappedScheduleSurvivesReopening() throws IOException {
+    Path file = Files.createTempDirectory("offheap").resolve("schedule");
+    OffHeapSchedule stored = new OffHeapSchedule(file);
+    List<Event> added = new ArrayList<>();
+    LocalDateTime base = morning.getStartTime();
+    for (int i = 0; i < 1000; i++) {
+      Event event = new Event("Event " + i, base.plusMinutes(30L * i),
+              base.plusMinutes(30L * i + 20), "Room " + (i % 7), false,
+              new ArrayList<>(Arrays.asList("1", "2")), "1");
+      stored.addEvent(event);
+      added.add(event);
+    }
+    stored.removeEvent(added.get(10));
+    stored.close();
+
+    OffHeapSchedule reopened = new OffHeapSchedule(file);
+    assertEquals(999, reopened.size());
+    assertEquals("Event 11", reopened.getEvents().get(10).getName());
+    assertFalse("The busy time is known again", reopened.isAvailable(
+            base.plusMinutes(30), base.plusMinutes(40)));
+    Event later = new Event("New", base, base.plusMinutes(5), "Room", false, null, "1");
+    assertNull("New events do not reuse stored IDs", reopened.getEvent(later.getId()));
+    reopened.close();
+  }
+
+  @Test
+  public void testManyDistinctStringsAreReadBack() {
+    // Far more strings than the first hash index holds, each used by two events
+    LocalDateTime base = morning.getStartTime();
+    List<Event> added = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      Event event = new Event("Event " + (i / 2), base.plusMinutes(i), base.plusMinutes(i + 1),
+              "Room " + (i / 2), false, new ArrayList<>(Arrays.asList("u" + (i / 2))), "1");
+      schedule.addEvent(event);
+      added.add(event);
+    }
+    for (Event event : added) {
+      Event read = schedule.getEvent(event.getId());
+      assertEquals(event.getName(), read.getName());
+      assertEquals(event.getLocation(), read.getLocation());
+      assertEquals(event.getInvitees(), read.getInvitees());
+    }
+  }
+}
@@ -0,0 +1,311 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import model.Event;
+import model.PlannerJournal;
+import model.PlannerSnapshot;
+import model.PlannerSystem;
+import model.ScheduleXmlWriter;
+import model.User;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test class for testing that the planner is saved and restored correctly.
+ */
+public class PlannerPersistenceTest {
+  private Path dir;
+  private User alice;
+  private User bob;
+  private Event meeting;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("planner");
+    alice = new User("a", "Alice");
+    bob = new User("b", "Bob");
+    LocalDateTime start = LocalDateTime.of(2024, 5, 6, 10, 30, 15);
+    meeting = new Event("Design review", start, start.plusMinutes(45), "Room 9",
+            true, new ArrayList<>(Arrays.asList("a", "b")), "a");
+    Event solo = new Event("Lunch", start.plusHours(2), start.plusHours(3), "Cafe",
+            false, null, null);
+    alice.getSchedule().addEvent(meeting);
+    alice.getSchedule().addEvent(solo);
+    bob.getSchedule().addEvent(meeting);
+  }
+
+  private void assertSameEvent(Event expected, Event actual) {
+    assertEquals(expected.getName(), actual.getName());
+    assertEquals(expected.getStartTime(), actual.getStartTime());
+    assertEquals(expected.getEndTime(), actual.getEndTime());
+    assertEquals(expected.getLocation(), actual.getLocation());
+    assertEquals(expected.isOnline(), actual.isOnline());
+    assertEquals(expected.getHostId(), actual.getHostId());
+    assertEquals(expected.getInvitees(), actual.getInvitees());
+  }
+
+  @Test
+  public void testSnapshotRoundTrip() throws IOException {
+    Path file = dir.resolve("planner.snapshot");
+    PlannerSnapshot.write(Arrays.asList(alice, bob), file);
+    for (boolean mapped : new boolean[]{false, true}) {
+      List<User> users = PlannerSnapshot.read(file, mapped);
+      assertEquals(2, users.size());
+      User readAlice = users.get(0);
+      User readBob = users.get(1);
+      assertEquals("Alice", readAlice.getName());
+      assertEquals(2, readAlice.getEvents().size());
+      assertSameEvent(meeting, readAlice.getEvents().get(0));
+      assertNull(readAlice.getEvents().get(1).getInvitees());
+      assertSame("A shared event is read back as one event",
+              readAlice.getEvents().get(0), readBob.getEvents().get(0));
+    }
+  }
+
+  @Test
+  public void testStartFromSnapshot() throws IOException {
+    Path file = dir.resolve("planner.snapshot");
+    PlannerSystem original = new PlannerSystem(Arrays.asList(alice, bob));
+    assertTrue(original.saveSnapshot(file));
+    PlannerSystem restored = new PlannerSystem(PlannerSnapshot.read(file, true));
+    assertEquals(2, restored.getUsers().size());
+    assertEquals(3, restored.getEvents().size());
+    assertEquals("Bob", restored.getUser("b").getName());
+  }
+
+  @Test
+  public void testNotASnapshot() throws IOException {
+    Path file = dir.resolve("bad.snapshot");
+    Files.write(file, "<schedule/>".getBytes());
+    try {
+      PlannerSnapshot.read(file, false);
+      fail("Expected an IOException for a file that is not a snapshot");
+    } catch (IOException e) {
+      assertEquals("Not a planner snapshot.", e.getMessage());
+    }
+  }
+
+  private PlannerSystem journaledSystem(PlannerJournal journal) throws IOException {
+    PlannerSystem system = new PlannerSystem(journal.recover());
+    system.setJournal(journal);
+    return system;
+  }
+
+  @Test
+  public void testJournalReplaysChanges() throws IOException {
+    Path snapshot = dir.resolve("planner.snapshot");
+    Path journalFile = dir.resolve("planner.journal");
+    PlannerSnapshot.write(Arrays.asList(alice, bob), snapshot);
+
+    PlannerJournal journal = new PlannerJournal(journalFile, snapshot);
+    PlannerSystem system = journaledSystem(journal);
+    User carol = new User("c", "Carol");
+    system.addUser(carol);
+    Event party = new Event("Party", meeting.getStartTime().plusDays(1),
+            meeting.getEndTime().plusDays(1), "Home", false, null, "c");
+    system.createEvent(carol, party);
+    system.addEventToUserSchedule("a", party);
+    User readAlice = system.getUser("a");
+    Event lunch = readAlice.getEvents().get(1);
+    system.removeEvent(readAlice, lunch);
+    Event moved = new Event("Design review", meeting.getStartTime().plusHours(4),
+            meeting.getEndTime().plusHours(4), "Room 9", true,
+            new ArrayList<>(Arrays.asList("a", "b")), "a");
+    system.modifyEvent(system.getUser("b"), system.getUser("b").getEvents().get(0), moved);
+    journal.close();
+
+    PlannerSystem recovered = journaledSystem(new PlannerJournal(journalFile, snapshot));
+    assertEquals(3, recovered.getUsers().size());
+    List<Event> aliceEvents = recovered.getUser("a").getEvents();
+    assertEquals("The meeting and the party, lunch was removed", 2, aliceEvents.size());
+    assertEquals("Party", aliceEvents.get(1).getName());
+    assertSame("The party is shared with Carol", aliceEvents.get(1),
+            recovered.getUser("c").getEvents().get(0));
+    assertEquals(moved.getStartTime(), recovered.getUser("b").getEvents().get(0).getStartTime());
+  }
+
+  @Test
+  public void testTornRecordIsDropped() throws IOException {
+    Path snapshot = dir.resolve("planner.snapshot");
+    Path journalFile = dir.resolve("planner.journal");
+    PlannerJournal journal = new PlannerJournal(journalFile, snapshot);
+    PlannerSystem system = journaledSystem(journal);
+    system.addUser(new User("a", "Alice"));
+    system.addEventToUserSchedule("a", meeting);
+    journal.close();
+
+    // Cut the last record in half as if the planner stopped while writing it
+    long size = Files.size(journalFile);
+    try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+      channel.truncate(size - 10);
+    }
+    PlannerJournal reopened = new PlannerJournal(journalFile, snapshot);
+    PlannerSystem recovered = journaledSystem(reopened);
+    assertEquals(1, recovered.getUsers().size());
+    assertTrue(recovered.getUser("a").getEvents().isEmpty());
+    // New records go after the last complete one
+    recovered.addEventToUserSchedule("a", meeting);
+    reopened.close();
+    assertEquals(1, journaledSystem(new PlannerJournal(journalFile, snapshot))
+            .getUser("a").getEvents().size());
+  }
+
+  @Test
+  public void testCompaction() throws IOException {
+    Path snapshot = dir.resolve("planner.snapshot");
+    Path journalFile = dir.resolve("planner.journal");
+    PlannerJournal journal = new PlannerJournal(journalFile, snapshot, 1000);
+    PlannerSystem system = journaledSystem(journal);
+    system.addUser(alice);
+    LocalDateTime start = LocalDateTime.of(2024, 6, 3, 8, 0);
+    for (int i = 0; i < 40; i++) {
+      system.addEventToUserSchedule("a", new Event("Event " + i, start.plusHours(i),
+              start.plusHours(i).plusMinutes(30), "Room", false, null, "a"));
+    }
+    assertTrue("The journal should have been compacted", Files.size(journalFile) <= 1000);
+    assertTrue(Files.exists(snapshot));
+    assertFalse(journal.needsCompaction());
+    journal.close();
+    PlannerSystem recovered = journaledSystem(new PlannerJournal(journalFile, snapshot));
+    assertEquals(42, recovered.getUser("a").getEvents().size());
+  }
+
+  @Test
+  public void testConcurrentWritersShareCommits() throws Exception {
+    Path snapshot = dir.resolve("planner.snapshot");
+    Path journalFile = dir.resolve("planner.journal");
+    PlannerJournal journal = new PlannerJournal(journalFile, snapshot);
+    journal.recover();
+    List<User> users = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      users.add(new User("u" + i, "User " + i));
+    }
+    List<Thread> threads = new ArrayList<>();
+    for (User user : users) {
+      Thread thread = new Thread(() -> {
+        try {
+          journal.userAdded(user);
+          for (int i = 0; i < 25; i++) {
+            LocalDateTime start = LocalDateTime.of(2024, 6, 3, 8, 0).plusHours(i);
+            journal.eventAdded(user.getId(), new Event("Event " + i, start,
+                    start.plusMinutes(30), "Room", false, null, user.getId()));
+          }
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    journal.close();
+    List<User> recovered = new PlannerJournal(journalFile, snapshot).recover();
+    assertEquals(8, recovered.size());
+    for (User user : recovered) {
+      assertEquals("Every record should be replayed", 25, user.getEvents().size());
+    }
+  }
+
+  @Test
+  public void testJournalReplaysRemovedUser() throws IOException {
+    Path snapshot = dir.resolve("planner.snapshot");
+    Path journalFile = dir.resolve("planner.journal");
+    PlannerSnapshot.write(Arrays.asList(alice, bob), snapshot);
+    PlannerJournal journal = new PlannerJournal(journalFile, snapshot);
+    PlannerSystem system = journaledSystem(journal);
+    assertTrue(system.removeUser("b"));
+    journal.close();
+
+    PlannerSystem recovered = journaledSystem(new PlannerJournal(journalFile, snapshot));
+    assertNull(recovered.getUser("b"));
+    assertEquals(Arrays.asList("a"), recovered.getUser("a").getEvents().get(0).getInvitees());
+    assertTrue(recovered.getEventsInvitedTo("b").isEmpty());
+  }
+
+  @Test
+  public void testEventIdsArePersisted() throws IOException {
+    Path snapshot = dir.resolve("planner.snapshot");
+    Path journalFile = dir.resolve("planner.journal");
+    PlannerSnapshot.write(Arrays.asList(alice, bob), snapshot);
+    assertEquals("The snapshot keeps the ID", meeting.getId(),
+            PlannerSnapshot.read(snapshot, false).get(0).getEvents().get(0).getId());
+
+    PlannerJournal journal = new PlannerJournal(journalFile, snapshot);
+    PlannerSystem system = journaledSystem(journal);
+    Event shared = system.getEvent(meeting.getId());
+    Event moved = new Event("Design review", meeting.getStartTime().plusDays(1),
+            meeting.getEndTime().plusDays(1), "Room 9", true,
+            new ArrayList<>(Arrays.asList("a", "b")), "a");
+    system.modifyEvent(system.getUser("a"), shared, moved);
+    journal.close();
+
+    PlannerSystem recovered = journaledSystem(new PlannerJournal(journalFile, snapshot));
+    Event replayed = recovered.getEvent(meeting.getId());
+    assertEquals(moved.getStartTime(), replayed.getStartTime());
+    assertSame("The modified event is shared again", replayed,
+            recovered.getUser("b").getEvents().get(0));
+  }
+
+  @Test
+  public void testJournalKeepsEventsOfAddedUser() throws IOException {
+    Path snapshot = dir.resolve("planner.snapshot");
+    Path journalFile = dir.resolve("planner.journal");
+    PlannerSnapshot.write(Arrays.asList(alice, bob), snapshot);
+    PlannerJournal journal = new PlannerJournal(journalFile, snapshot);
+    PlannerSystem system = journaledSystem(journal);
+    User carol = new User("c", "Carol");
+    Event party = new Event("Party", meeting.getStartTime().plusDays(1),
+            meeting.getEndTime().plusDays(1), "Home", false, null, "c");
+    carol.getSchedule().addEvent(party);
+    system.addUser(carol);
+    journal.close();
+
+    PlannerSystem recovered = journaledSystem(new PlannerJournal(journalFile, snapshot));
+    assertEquals("The events the user came with are kept", 1,
+            recovered.getUser("c").getEvents().size());
+    assertSameEvent(party, recovered.getUser("c").getEvents().get(0));
+  }
+
+  @Test
+  public void testUploadBeforeAddingUser() throws IOException, XMLStreamException {
+    Path snapshot = dir.resolve("planner.snapshot");
+    Path journalFile = dir.resolve("planner.journal");
+    Path xml = dir.resolve("carol.xml");
+    PlannerSnapshot.write(Arrays.asList(alice, bob), snapshot);
+    Event party = new Event("Party", meeting.getStartTime().plusDays(1),
+            meeting.getEndTime().plusDays(1), "Home", false, null, "c");
+    new ScheduleXmlWriter().write(xml, "c", Arrays.asList(party));
+
+    PlannerJournal journal = new PlannerJournal(journalFile, snapshot);
+    PlannerSystem system = journaledSystem(journal);
+    User carol = new User("c", "Carol");
+    assertTrue(system.uploadSchedule(xml.toString(), carol));
+    system.addUser(carol);
+    journal.close();
+
+    PlannerSystem recovered = journaledSystem(new PlannerJournal(journalFile, snapshot));
+    assertEquals(3, recovered.getUsers().size());
+    assertEquals("The uploaded events are journaled with the user", 1,
+            recovered.getUser("c").getEvents().size());
+    assertEquals("Party", recovered.getUser("c").getEvents().get(0).getName());
+  }
+}
@@ -0,0 +1,199 @@
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.AnytimeSchedulingStrategy;
+import model.Event;
+import model.PlannerJournal;
+import model.PlannerSystem;
+import model.User;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for using the PlannerSystem from many threads at once.
+ * After the threads are done, no two events in a user's schedule may overlap, every
+ * scheduled event must be on the schedule of its host and all its invitees, and the
+ * journal must give back the same planner.
+ */
+public class PlannerSystemConcurrencyTest {
+  private static final int USERS = 6;
+  private static final int THREADS = 8;
+  private static final int ROUNDS = 40;
+
+  private void assertNoOverlaps(User user) {
+    List<Event> events = user.getEvents();
+    for (int i = 1; i < events.size(); i++) {
+      assertFalse(user.getName() + " has overlapping events " + events.get(i - 1) + " and "
+                      + events.get(i),
+              events.get(i).getStartTime().isBefore(events.get(i - 1).getEndTime()));
+    }
+  }
+
+  @Test(timeout = 60000)
+  public void testConcurrentSchedulingKeepsInvariants() throws Exception {
+    List<User> users = new ArrayList<>();
+    for (int i = 0; i < USERS; i++) {
+      users.add(new User("user" + i, "User " + i));
+    }
+    Path dir = Files.createTempDirectory("planner");
+    Path snapshot = dir.resolve("planner.snapshot");
+    Path journalFile = dir.resolve("planner.journal");
+    PlannerJournal journal = new PlannerJournal(journalFile, snapshot, 4000);
+    journal.recover();
+    PlannerSystem system = new PlannerSystem(users);
+    system.setJournal(journal);
+    system.setSchedulingStrategy(new AnytimeSchedulingStrategy(5));
+
+    List<Event> scheduled = Collections.synchronizedList(new ArrayList<>());
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      long seed = t;
+      futures.add(executor.submit(() -> {
+        Random random = new Random(seed);
+        for (int round = 0; round < ROUNDS; round++) {
+          User host = users.get(random.nextInt(USERS));
+          int choice = random.nextInt(4);
+          if (choice == 0) {
+            // A meeting with the host and two invitees, in opposite orders in other threads
+            List<String> invitees = new ArrayList<>();
+            invitees.add(host.getId());
+            invitees.add(users.get(random.nextInt(USERS)).getId());
+            invitees.add(users.get(random.nextInt(USERS)).getId());
+            Event meeting = new Event("Meeting", Duration.ofMinutes(25 + random.nextInt(60)),
+                    "Room", false, invitees);
+            system.createEventBasedOnStrategy(host, meeting);
+            if (meeting.getStartTime() != null) {
+              scheduled.add(meeting);
+            }
+          } else if (choice == 1) {
+            LocalDateTime start = LocalDateTime.of(2030, 1, 7, 8, 0)
+                    .plusMinutes(15 * random.nextInt(200));
+            Event event = new Event("Task", start, start.plusMinutes(30), "Desk", false,
+                    new ArrayList<>(), host.getId());
+            try {
+              system.createEvent(host, event);
+            } catch (IllegalStateException e) {
+              // The time was taken by another thread
+            }
+          } else if (choice == 2) {
+            List<Event> events = host.getEvents();
+            if (!events.isEmpty()) {
+              Event event = events.get(random.nextInt(events.size()));
+              // Meetings stay, so the test can check that every invitee has them
+              if (event.getName().equals("Task")) {
+                system.removeEvent(host, event);
+              }
+            }
+          } else {
+            system.seeEvents(host, LocalDateTime.now());
+            system.getEvents();
+          }
+        }
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    for (User user : users) {
+      assertNoOverlaps(user);
+    }
+    assertFalse("Some meetings should have been scheduled", scheduled.isEmpty());
+    assertTrue("The journal should have been compacted", Files.exists(snapshot));
+    for (Event meeting : scheduled) {
+      for (String inviteeId : meeting.getInvitees()) {
+        assertTrue("Every invitee should have the meeting",
+                system.getUser(inviteeId).getEvents().contains(meeting));
+      }
+    }
+
+    journal.close();
+    List<User> recovered = new PlannerJournal(journalFile, snapshot).recover();
+    assertEquals(USERS, recovered.size());
+    for (User user : recovered) {
+      assertNoOverlaps(user);
+      List<Event> expected = system.getUser(user.getId()).getEvents();
+      assertEquals("The journal should give back " + user.getName() + "'s schedule",
+              expected.size(), user.getEvents().size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(expected.get(i).getStartTime(), user.getEvents().get(i).getStartTime());
+      }
+    }
+  }
+
+  @Test(timeout = 60000)
+  public void testAddUsersFromManyThreads() throws Exception {
+    PlannerSystem system = new PlannerSystem(new ArrayList<>());
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<Boolean>> futures = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      String id = "u" + (i % 100);
+      futures.add(executor.submit(() -> {
+        try {
+          system.addUser(new User(id, id));
+          return true;
+        } catch (IllegalArgumentException e) {
+          return false;
+        }
+      }));
+    }
+    int added = 0;
+    for (Future<Boolean> future : futures) {
+      added += future.get() ? 1 : 0;
+    }
+    executor.shutdown();
+    assertEquals("Each id should be added exactly once", 100, added);
+    assertEquals(100, system.getUsers().size());
+    assertEquals(Arrays.asList(), system.getUser("u5").getEvents());
+  }
+
+  @Test(timeout = 60000)
+  public void testContendedBookingsNeverDoubleBook() throws Exception {
+    // Every thread books meetings for the same two people, so the slots are fought over
+    User alice = new User("alice", "Alice");
+    User bob = new User("bob", "Bob");
+    PlannerSystem system = new PlannerSystem(Arrays.asList(alice, bob));
+    system.setSchedulingStrategy(new AnytimeSchedulingStrategy(5));
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<Integer>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      futures.add(executor.submit(() -> {
+        int booked = 0;
+        for (int i = 0; i < 10; i++) {
+          Event meeting = new Event("Sync", Duration.ofMinutes(20), "Room", false,
+                  new ArrayList<>(Arrays.asList("bob", "alice")));
+          system.createEventBasedOnStrategy(alice, meeting);
+          booked += meeting.getStartTime() == null ? 0 : 1;
+        }
+        return booked;
+      }));
+    }
+    int booked = 0;
+    for (Future<Integer> future : futures) {
+      booked += future.get();
+    }
+    executor.shutdown();
+    assertEquals("There is room for every meeting", THREADS * 10, booked);
+    assertEquals(booked, alice.getEvents().size());
+    assertEquals(booked, bob.getEvents().size());
+    assertNoOverlaps(alice);
+    assertNoOverlaps(bob);
+  }
+}
@@ -1,16 +1,28 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import model.Event;
+import model.IPlannerListener;
+import model.ModelSnapshot;
 import model.User;
 import model.PlannerSystem;
+import model.ScheduleLoadResult;
 
 import static junit.framework.TestCase.assertNotNull;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -196,5 +208,270 @@ public class PlannerSystemTest {
 
     assertTrue("Event should be scheduled successfully", system.autoSchedule(user, event));
   }
-}
 
+  @Test
+  public void testLoadSchedules() {
+    // Loads several files at once, a missing file should not stop the others
+    User prof = new User("10", "Prof");
+    User jane = new User("11", "Jane Copy");
+    User missing = new User("12", "Missing");
+    Map<User, Path> files = new LinkedHashMap<>();
+    files.put(prof, Paths.get("prof.xml"));
+    files.put(jane, Paths.get("jane.xml"));
+    files.put(missing, Paths.get("does-not-exist.xml"));
+
+    List<ScheduleLoadResult> results = system.loadSchedules(files);
+    assertEquals(3, results.size());
+    assertTrue(results.get(0).isSuccessful());
+    assertEquals(3, results.get(0).getEventsLoaded());
+    assertEquals(4, results.get(1).getEventsLoaded());
+    assertFalse("The missing file should fail", results.get(2).isSuccessful());
+    assertEquals("Loaded users are added to the system", prof, system.getUser("10"));
+    assertEquals(4, jane.getSchedule().getEvents().size());
+    assertNull("A user whose file failed is not added", system.getUser("12"));
+  }
+
+  @Test
+  public void testSnapshotIsReusedUntilChange() {
+    ModelSnapshot first = system.getSnapshot();
+    assertSame("Nothing changed, so the snapshot should be reused", first, system.getSnapshot());
+    User john = system.getUser("1");
+    int before = first.getEvents("1").size();
+    Event extra = new Event("Extra", LocalDateTime.of(2030, 1, 1, 9, 0),
+            LocalDateTime.of(2030, 1, 1, 10, 0), "Home", false, new ArrayList<>(), "1");
+    system.createEvent(john, extra);
+    ModelSnapshot second = system.getSnapshot();
+    assertTrue(second.getVersion() > first.getVersion());
+    assertEquals("The old snapshot does not change", before, first.getEvents("1").size());
+    assertEquals(before + 1, second.getEvents("1").size());
+    assertEquals(first.getEvents().size() + 1, second.getEvents().size());
+  }
+
+  @Test
+  public void testEventsInvitedTo() {
+    PlannerSystem planner = new PlannerSystem(new ArrayList<>());
+    User ann = new User("ann", "Ann");
+    User ben = new User("ben", "Ben");
+    planner.addUser(ann);
+    planner.addUser(ben);
+    LocalDateTime nine = LocalDateTime.of(2030, 1, 1, 9, 0);
+    Event late = new Event("Late", nine.plusHours(5), nine.plusHours(6), "Room", false,
+            new ArrayList<>(Arrays.asList("ann", "ben")), "ann");
+    Event early = new Event("Early", nine, nine.plusHours(1), "Room", false,
+            new ArrayList<>(Arrays.asList("ann", "ben")), "ann");
+    planner.createEvent(ann, late);
+    planner.createEvent(ben, late);
+    planner.createEvent(ann, early);
+    assertEquals("Ben is invited to both, earliest first", Arrays.asList(early, late),
+            planner.getEventsInvitedTo("ben"));
+
+    // The late event is still on Ben's schedule after Ann removes it
+    planner.removeEvent(ann, late);
+    assertEquals(Arrays.asList(early, late), planner.getEventsInvitedTo("ann"));
+    planner.removeEvent(ben, late);
+    assertEquals(Arrays.asList(early), planner.getEventsInvitedTo("ben"));
+
+    List<String> modified = new ArrayList<>();
+    planner.addPlannerListener(new IPlannerListener() {
+      @Override
+      public void eventAdded(User user, Event event) {
+        fail("Removing a user adds no event");
+      }
+
+      @Override
+      public void eventRemoved(User user, Event event) {
+        fail("Removing a user removes no event from the others");
+      }
+
+      @Override
+      public void eventModified(User user, Event originalEvent, Event updatedEvent) {
+        modified.add(user.getId() + " " + updatedEvent.getInvitees());
+      }
+    });
+    ModelSnapshot before = planner.getSnapshot();
+    assertTrue(planner.removeUser("ben"));
+    assertNull(planner.getUser("ben"));
+    assertEquals("Ben is taken out of the invitees", Arrays.asList("ann"),
+            planner.getEvent(early.getId()).getInvitees());
+    assertEquals("Ann is told about it", Arrays.asList("ann [ann]"), modified);
+    assertEquals("The earlier snapshot does not change", Arrays.asList("ann", "ben"),
+            before.getEvents("ann").get(0).getInvitees());
+    assertTrue(planner.getEventsInvitedTo("ben").isEmpty());
+    assertFalse("Ben is already gone", planner.removeUser("ben"));
+  }
+
+  @Test
+  public void testUserNameLookups() {
+    PlannerSystem planner = new PlannerSystem(new ArrayList<>());
+    User amy = new User("1", "Amy");
+    User amos = new User("2", "Amos");
+    User otherAmy = new User("3", "amy");
+    User bo = new User("4", "Bo");
+    planner.addUser(amy);
+    planner.addUser(amos);
+    planner.addUser(otherAmy);
+    planner.addUser(bo);
+
+    assertEquals(amy, planner.getUserByName("Amy"));
+    assertEquals("Exact lookup respects case", otherAmy, planner.getUserByName("amy"));
+    assertNull(planner.getUserByName("AMY"));
+    assertEquals("The first Amy added wins", amy, planner.getUserByNameIgnoreCase("AMY"));
+    assertEquals(Arrays.asList(amos, amy, otherAmy), planner.findUsersByNamePrefix("am", 10));
+    assertEquals(Arrays.asList(amos), planner.findUsersByNamePrefix("AM", 1));
+    assertTrue(planner.findUsersByNamePrefix("c", 10).isEmpty());
+
+    planner.removeUser("1");
+    assertEquals(otherAmy, planner.getUserByNameIgnoreCase("Amy"));
+    assertNull(planner.getUserByName("Amy"));
+  }
+
+  @Test
+  public void testSharedEventIsStoredOnce() {
+    User john = new User("John", "John");
+    User sarah = new User("Sarah", "Sarah");
+    system.addUser(john);
+    system.addUser(sarah);
+    system.uploadSchedule("john.xml", john);
+    system.uploadSchedule("john.xml", sarah);
+    Event meeting = john.getEvents().get(0);
+    assertSame("The same meeting in two files is one event", meeting,
+            sarah.getEvents().get(0));
+    assertSame(meeting, system.getEvent(meeting.getId()));
+
+    Event moved = new Event(meeting.getName(), meeting.getStartTime().plusHours(1),
+            meeting.getEndTime().plusHours(1), meeting.getLocation(), meeting.isOnline(),
+            meeting.getInvitees(), meeting.getHostId());
+    assertTrue(system.modifyEvent(sarah, meeting, moved));
+    assertEquals("The updated event keeps the ID", meeting.getId(), moved.getId());
+    assertSame("Every participant sees the change", moved, john.getEvents().get(0));
+    assertSame(moved, sarah.getEvents().get(0));
+    assertSame(moved, system.getEvent(meeting.getId()));
+  }
+
+  @Test
+  public void testRemoveAndModifyById() {
+    User user = new User("5", "Erin");
+    system.addUser(user);
+    LocalDateTime start = LocalDateTime.of(2024, 5, 6, 9, 0);
+    Event standup = new Event("Standup", start, start.plusMinutes(15), "Room 1", false,
+            new ArrayList<>(), "5");
+    Event review = new Event("Review", start.plusHours(2), start.plusHours(3), "Room 2", false,
+            new ArrayList<>(), "5");
+    system.createEvent(user, standup);
+    system.createEvent(user, review);
+
+    Event later = new Event("Standup", start.plusHours(1), start.plusHours(1).plusMinutes(15),
+            "Room 1", false, new ArrayList<>(), "5");
+    assertTrue(system.modifyEvent(user, standup.getId(), later));
+    assertSame(later, user.getSchedule().getEvent(standup.getId()));
+    assertTrue(system.removeEvent(user, review.getId()));
+    assertFalse("The review is already gone", system.removeEvent(user, review.getId()));
+    assertFalse(system.modifyEvent(user, review.getId(), later));
+    assertEquals(Arrays.asList(later), user.getEvents());
+  }
+
+  @Test
+  public void testBadModificationLeavesTheEvent() {
+    User user = new User("5", "Erin");
+    system.addUser(user);
+    LocalDateTime start = LocalDateTime.of(2024, 5, 6, 9, 0);
+    Event standup = new Event("Standup", start, start.plusMinutes(15), "Room 1", false,
+            new ArrayList<>(), "5");
+    Event review = new Event("Review", start.plusHours(2), start.plusHours(3), "Room 2", false,
+            new ArrayList<>(), "5");
+    system.createEvent(user, standup);
+    system.createEvent(user, review);
+
+    Event noTimes = new Event("Standup", null, null, "Room 1", false, new ArrayList<>(), "5");
+    try {
+      system.modifyEvent(user, standup.getId(), noTimes);
+      fail("Expected an IllegalArgumentException for an event without times");
+    } catch (IllegalArgumentException e) {
+      assertSame("The standup is still there", standup,
+              user.getSchedule().getEvent(standup.getId()));
+    }
+    long reviewId = review.getId();
+    try {
+      system.modifyEvent(user, standup, review);
+      fail("Expected an IllegalArgumentException for an event already in the planner");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The review keeps its ID", reviewId, review.getId());
+      assertEquals(Arrays.asList(standup, review), user.getEvents());
+    }
+  }
+
+  @Test
+  public void testListenersAreToldAboutEachChange() {
+    User user = new User("7", "Gus");
+    User other = new User("8", "Hana");
+    system.addUser(user);
+    system.addUser(other);
+    List<String> changes = new ArrayList<>();
+    system.addPlannerListener(new IPlannerListener() {
+      @Override
+      public void eventAdded(User changed, Event event) {
+        changes.add("added " + event.getName() + " for " + changed.getId());
+      }
+
+      @Override
+      public void eventRemoved(User changed, Event event) {
+        changes.add("removed " + event.getName() + " for " + changed.getId());
+      }
+
+      @Override
+      public void eventModified(User changed, Event originalEvent, Event updatedEvent) {
+        changes.add("modified " + originalEvent.getName() + " to " + updatedEvent.getName()
+                + " for " + changed.getId());
+      }
+    });
+    LocalDateTime start = LocalDateTime.of(2024, 5, 6, 9, 0);
+    Event standup = new Event("Standup", start, start.plusMinutes(15), "Room 1", false,
+            new ArrayList<>(), "7");
+    system.createEvent(user, standup);
+    system.addEventToUserSchedule("8", standup);
+    Event moved = new Event("Late standup", start.plusHours(1),
+            start.plusHours(1).plusMinutes(15), "Room 1", false, new ArrayList<>(), "7");
+    system.modifyEvent(user, standup.getId(), moved);
+    system.removeEvent(other, moved.getId());
+    assertEquals("One change per event and user, a modification included", Arrays.asList(
+            "added Standup for 7", "added Standup for 8",
+            "modified Standup to Late standup for 7", "modified Standup to Late standup for 8",
+            "removed Late standup for 8"), changes);
+  }
+
+  @Test
+  public void testSeeEventsMatchesScan() {
+    // Random events, including some that touch or contain each other, against a plain scan
+    User user = new User("6", "Finn");
+    system.addUser(user);
+    Random random = new Random(3);
+    LocalDateTime base = LocalDateTime.of(2024, 5, 6, 0, 0);
+    for (int i = 0; i < 300; i++) {
+      LocalDateTime start = base.plusMinutes(15L * random.nextInt(400));
+      user.getSchedule().addEvent(new Event("E" + i, start,
+              start.plusMinutes(15L * random.nextInt(20)), "Room", false, null, "6"));
+    }
+    List<LocalDateTime> times = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      times.add(base.plusMinutes(5L * random.nextInt(1400)));
+    }
+    List<List<Event>> batch = system.seeEvents(user, times);
+    for (int i = 0; i < times.size(); i++) {
+      LocalDateTime time = times.get(i);
+      List<Event> expected = new ArrayList<>();
+      for (Event event : user.getEvents()) {
+        if (event.getStartTime().isBefore(time) && event.getEndTime().isAfter(time)) {
+          expected.add(event);
+        }
+      }
+      assertEquals(expected, system.seeEvents(user, time));
+      assertEquals("The batch gives the same events", expected, batch.get(i));
+    }
+
+    Event late = new Event("Late", base.plusDays(30), base.plusDays(30).plusHours(1), "Room",
+            false, null, "6");
+    system.createEvent(user, late);
+    assertEquals("The index follows changes", Arrays.asList(late),
+            system.seeEvents(user, late.getStartTime().plusMinutes(1)));
+  }
+}
@@ -34,6 +34,16 @@ public class PlannerViewTest {
       public void onScheduleLoad(String filePath, User user) {
         mockPlannerView.showError("Error loading schedule");
       }
+
+      @Override
+      public void onEventRemove(long eventId, String userId) {
+        mockPlannerView.showError("Error removing event");
+      }
+
+      @Override
+      public void onEventModify(long eventId, Event updatedEvent, String userId) {
+        mockPlannerView.showError("Error modifying event");
+      }
     };
   }
 
@@ -0,0 +1,148 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.Event;
+import model.ISchedule;
+import model.Schedule;
+import model.User;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that every kind of schedule must pass, run once for each kind by its subclass.
+ * The results are also compared against the list backed Schedule.
+ * Some schedules build new event objects when they are read, so events are compared by ID,
+ * and only compared as objects when keepsEventObjects says so.
+ */
+public abstract class ScheduleContractTest {
+  protected ISchedule schedule;
+  protected Event morning;
+  protected Event afternoon;
+
+  /**
+   * Makes the empty schedule that is tested.
+   *
+   * @return a new schedule
+   */
+  protected abstract ISchedule newSchedule();
+
+  /**
+   * Says whether the schedule gives back the event objects that were added. A schedule that
+   * builds new objects when it is read gives back equal events instead.
+   *
+   * @return true if the added objects are given back
+   */
+  protected boolean keepsEventObjects() {
+    return true;
+  }
+
+  @Before
+  public void setUp() {
+    schedule = newSchedule();
+    LocalDateTime day = LocalDateTime.of(2024, 3, 10, 0, 0);
+    morning = new Event("Morning", day.withHour(9), day.withHour(11),
+            "Room 1", false, new ArrayList<>(), "1");
+    afternoon = new Event("Afternoon", day.withHour(13), day.withHour(15),
+            "Room 2", true, new ArrayList<>(), "1");
+  }
+
+  @Test
+  public void testAddAndGetEventsInStartOrder() {
+    schedule.addEvent(afternoon);
+    schedule.addEvent(morning);
+    List<Event> events = schedule.getEvents();
+    assertEquals("The schedule should contain 2 events", 2, events.size());
+    assertEquals("Events should be returned by start time", morning, events.get(0));
+    assertEquals("Events should be returned by start time", afternoon, events.get(1));
+    if (keepsEventObjects()) {
+      assertSame(morning, events.get(0));
+      assertSame(afternoon, events.get(1));
+    }
+  }
+
+  @Test
+  public void testRemoveEvent() {
+    schedule.addEvent(morning);
+    schedule.addEvent(afternoon);
+    assertTrue("Removing an added event should succeed", schedule.removeEvent(morning));
+    assertFalse("Removing it twice should fail", schedule.removeEvent(morning));
+    assertEquals(1, schedule.getEvents().size());
+    assertTrue(schedule.isAvailable(morning.getStartTime(), morning.getEndTime()));
+  }
+
+  @Test
+  public void testConflictsAndAvailability() {
+    schedule.addEvent(morning);
+    schedule.addEvent(afternoon);
+    LocalDateTime day = morning.getStartTime();
+    // Touching the end of an event is not a conflict
+    assertTrue(schedule.isAvailable(day.withHour(11), day.withHour(13)));
+    assertFalse(schedule.isAvailable(day.withHour(10), day.withHour(12)));
+    Event lunch = new Event("Lunch", day.withHour(12), day.withHour(14),
+            "Cafe", false, new ArrayList<>(), "1");
+    assertTrue("Lunch overlaps the afternoon event", schedule.hasEventConflict(lunch));
+    assertEquals(1, schedule.getOverlappingEvents(lunch.getStartTime(),
+            lunch.getEndTime()).size());
+  }
+
+  @Test
+  public void testLongEventStillOverlapsLaterRanges() {
+    // The week long event starts before many short ones but must still be found
+    LocalDateTime day = morning.getStartTime();
+    Event week = new Event("Conference", day.minusDays(1), day.plusDays(6),
+            "Hall", false, new ArrayList<>(), "1");
+    schedule.addEvent(week);
+    schedule.addEvent(morning);
+    schedule.addEvent(afternoon);
+    assertFalse(schedule.isAvailable(day.plusDays(3), day.plusDays(3).plusHours(1)));
+    assertEquals(1, schedule.getOverlappingEvents(day.plusDays(3),
+            day.plusDays(3).plusHours(1)).size());
+    assertEquals(3, schedule.getOverlappingEvents(day.withHour(10), day.withHour(14)).size());
+    assertTrue(schedule.removeEvent(week));
+    assertTrue(schedule.isAvailable(day.plusDays(3), day.plusDays(3).plusHours(1)));
+  }
+
+  @Test
+  public void testUserWithSchedule() {
+    User user = new User("7", "Tree", schedule);
+    user.getSchedule().addEvent(morning);
+    assertSame(schedule, user.getSchedule());
+    assertEquals(1, user.getEvents().size());
+  }
+
+  @Test
+  public void testMatchesListSchedule() {
+    // Random events and queries should give the same answers as the list schedule
+    Random random = new Random(42);
+    Schedule list = new Schedule();
+    List<Event> added = new ArrayList<>();
+    LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+    for (int i = 0; i < 500; i++) {
+      LocalDateTime start = base.plusMinutes(random.nextInt(20000));
+      Event event = new Event("E" + i, start, start.plusMinutes(1 + random.nextInt(300)),
+              "Somewhere", false, new ArrayList<>(), "1");
+      schedule.addEvent(event);
+      list.addEvent(event);
+      added.add(event);
+    }
+    for (int i = 0; i < 200; i++) {
+      Event removed = added.remove(random.nextInt(added.size()));
+      assertEquals(list.removeEvent(removed), schedule.removeEvent(removed));
+    }
+    for (int i = 0; i < 500; i++) {
+      LocalDateTime start = base.plusMinutes(random.nextInt(20000));
+      LocalDateTime end = start.plusMinutes(1 + random.nextInt(120));
+      assertEquals(list.isAvailable(start, end), schedule.isAvailable(start, end));
+      assertEquals(list.getOverlappingEvents(start, end).size(),
+              schedule.getOverlappingEvents(start, end).size());
+    }
+  }
+}
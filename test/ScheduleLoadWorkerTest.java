@@ -0,0 +1,74 @@
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import model.Event;
+import model.PlannerSystem;
+import model.ScheduleXmlWriter;
+import model.User;
+import view.ScheduleLoadWorker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests the ScheduleLoadWorker class.
+ */
+public class ScheduleLoadWorkerTest {
+
+  @Test
+  public void testEventsAreDeliveredOnTheEventDispatchThread() throws Exception {
+    List<Event> written = new ArrayList<>();
+    LocalDateTime start = LocalDateTime.of(2024, 4, 29, 9, 0);
+    for (int i = 0; i < 500; i++) {
+      written.add(new Event("Event " + i, start.plusMinutes(i), start.plusMinutes(i + 30),
+              "Room", false, List.of("1"), "1"));
+    }
+    Path file = Files.createTempFile("schedule", ".xml");
+    try {
+      new ScheduleXmlWriter().write(file, "1", written);
+      User user = new User("1", "Host");
+      List<String> delivered = new ArrayList<>();
+      List<Boolean> onEdt = new ArrayList<>();
+      Object[] result = new Object[2];
+      CountDownLatch finished = new CountDownLatch(1);
+      SwingUtilities.invokeAndWait(() -> new ScheduleLoadWorker(
+              new PlannerSystem(new ArrayList<>()), file.toFile(), user, null) {
+        @Override
+        protected void eventsLoaded(List<Event> events) {
+          onEdt.add(SwingUtilities.isEventDispatchThread());
+          for (Event event : events) {
+            delivered.add(event.getName());
+          }
+        }
+
+        @Override
+        protected void loadFinished(boolean loaded, Throwable error) {
+          result[0] = loaded;
+          result[1] = error;
+          finished.countDown();
+        }
+      }.execute());
+      assertTrue("The load finishes", finished.await(10, TimeUnit.SECONDS));
+      assertEquals(true, result[0]);
+      assertNull(result[1]);
+      assertEquals("Every event in the order of the file", 500, delivered.size());
+      for (int i = 0; i < delivered.size(); i++) {
+        assertEquals("Event " + i, delivered.get(i));
+      }
+      assertTrue("Delivered on the EDT", onEdt.stream().allMatch(b -> b));
+      assertEquals(500, user.getSchedule().getEvents().size());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
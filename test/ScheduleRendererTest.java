@@ -0,0 +1,145 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Event;
+import view.DefaultEventDrawer;
+import view.EventDrawer;
+import view.SaturdayEventDrawer;
+import view.ScheduleRenderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * This class tests the ScheduleRenderer class.
+ * The schedule is painted on an image, 100 pixels per day and 20 per hour.
+ */
+public class ScheduleRendererTest {
+  private static final int WIDTH = 700;
+  private static final int HEIGHT = 480;
+
+  private List<Event> drawnEvents;
+  private ScheduleRenderer renderer;
+  private Event monday;
+  private Event friday;
+
+  @Before
+  public void setUp() {
+    drawnEvents = new ArrayList<>();
+    EventDrawer drawer = new EventDrawer() {
+      private final EventDrawer delegate = new DefaultEventDrawer();
+
+      @Override
+      public void drawMainSystem(Graphics g, Event event, Dimension size, boolean isHost) {
+        drawnEvents.add(event);
+        delegate.drawMainSystem(g, event, size, isHost);
+      }
+
+      @Override
+      public Rectangle getBounds(Event event, Dimension size) {
+        return delegate.getBounds(event, size);
+      }
+    };
+    renderer = new ScheduleRenderer(drawer);
+    monday = new Event("Standup", LocalDateTime.of(2024, 1, 1, 2, 0),
+            LocalDateTime.of(2024, 1, 1, 4, 0), "Room", false, List.of("1"), "1");
+    friday = new Event("Review", LocalDateTime.of(2024, 1, 5, 2, 0),
+            LocalDateTime.of(2024, 1, 5, 4, 0), "Room", false, List.of("1"), "2");
+  }
+
+  @Test
+  public void testPaintDrawsGridAndEvents() {
+    renderer.update(List.of(monday, friday), "1", true);
+    BufferedImage image = paint();
+    assertEquals("Host event", Color.CYAN.getRGB(), image.getRGB(150, 70));
+    assertEquals("Other event", Color.RED.getRGB(), image.getRGB(550, 70));
+    assertEquals("Bold hour line", Color.BLACK.getRGB(), image.getRGB(50, 80));
+    assertEquals("Empty tile", Color.WHITE.getRGB(), image.getRGB(350, 110));
+  }
+
+  @Test
+  public void testLayersAreCachedUntilSomethingChanges() {
+    List<Event> events = List.of(monday, friday);
+    renderer.update(events, "1", false);
+    paint();
+    assertEquals("Every event is drawn once", 2, drawnEvents.size());
+    assertNull("Nothing changed", renderer.update(events, "1", false));
+    paint();
+    assertEquals("The cached layer is reused", 2, drawnEvents.size());
+  }
+
+  @Test
+  public void testMovingAnEventOnlyRedrawsItsDays() {
+    renderer.update(List.of(monday, friday), "1", false);
+    paint();
+    drawnEvents.clear();
+    monday.setStartTime(LocalDateTime.of(2024, 1, 3, 2, 0));
+    monday.setEndTime(LocalDateTime.of(2024, 1, 3, 4, 0));
+    Rectangle dirty = renderer.update(List.of(monday, friday), "1", false);
+    assertEquals("Monday through Wednesday", new Rectangle(100, 40, 300, 40), dirty);
+    assertEquals("Friday is not drawn again", List.of(monday), drawnEvents);
+    BufferedImage image = paint();
+    assertNotEquals("Moved from Monday", Color.RED.getRGB(), image.getRGB(150, 70));
+    assertEquals("Moved to Wednesday", Color.RED.getRGB(), image.getRGB(350, 70));
+    assertEquals("Friday is kept", Color.RED.getRGB(), image.getRGB(550, 70));
+  }
+
+  @Test
+  public void testRemovingAnEventClearsItsDay() {
+    renderer.update(List.of(monday, friday), "1", false);
+    paint();
+    Rectangle dirty = renderer.update(List.of(friday), "1", false);
+    assertEquals("Monday", new Rectangle(100, 40, 100, 40), dirty);
+    assertEquals(Color.WHITE.getRGB(), paint().getRGB(150, 70));
+  }
+
+  @Test
+  public void testEventAtFindsTheEventUnderThePoint() {
+    assertNull("Nothing is laid out before painting", renderer.eventAt(150, 70));
+    Event overlapping = new Event("Lunch", LocalDateTime.of(2024, 1, 1, 3, 0),
+            LocalDateTime.of(2024, 1, 1, 5, 0), "Room", false, List.of("1"), "1");
+    renderer.update(List.of(monday, overlapping, friday), "1", false);
+    paint();
+    assertEquals(monday, renderer.eventAt(150, 50));
+    assertEquals("The event drawn last is on top", overlapping, renderer.eventAt(150, 70));
+    assertEquals(overlapping, renderer.eventAt(199, 99));
+    assertEquals(friday, renderer.eventAt(500, 40));
+    assertNull("Below the events", renderer.eventAt(150, 100));
+    assertNull("Above the events", renderer.eventAt(150, 39));
+    assertNull("Another day", renderer.eventAt(350, 70));
+    assertNull("Outside the panel", renderer.eventAt(WIDTH + 10, 70));
+  }
+
+  @Test
+  public void testEventAtFollowsTheLayoutOfTheDrawer() {
+    renderer = new ScheduleRenderer(new SaturdayEventDrawer());
+    Event saturday = new Event("Brunch", LocalDateTime.of(2024, 1, 6, 2, 0),
+            LocalDateTime.of(2024, 1, 6, 4, 0), "Home", false, List.of("1"), "1");
+    renderer.update(List.of(saturday, monday), "1", false);
+    paint();
+    assertEquals("Saturday is the first column", saturday, renderer.eventAt(50, 50));
+    assertEquals("Monday is the third column", monday, renderer.eventAt(250, 50));
+    assertNull(renderer.eventAt(150, 50));
+  }
+
+  private BufferedImage paint() {
+    BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setColor(Color.WHITE);
+    g.fillRect(0, 0, WIDTH, HEIGHT);
+    renderer.paint(g, WIDTH, HEIGHT);
+    g.dispose();
+    return image;
+  }
+}
@@ -3,15 +3,22 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import model.Event;
+import model.ISchedule;
+import model.IScheduleListener;
 import model.Schedule;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 
 /**
@@ -69,4 +76,73 @@ public class ScheduleTest {
             events.size());
   }
 
+  @Test
+  public void eventsBetween() {
+    // events come back in start order and only if they start inside the range
+    schedule.addEvent(event2);
+    schedule.addEvent(event1);
+    List<Event> events = schedule.eventsBetween(event1.getStartTime(),
+            event2.getStartTime().plusMinutes(1));
+    assertEquals("Both events start inside the range", 2, events.size());
+    assertEquals("The earlier event should come first", event1, events.get(0));
+    assertEquals("The range end is exclusive", 1,
+            schedule.eventsBetween(event1.getStartTime(), event2.getStartTime()).size());
+    assertTrue("An empty range has no events",
+            schedule.eventsBetween(event2.getStartTime(), event1.getStartTime()).isEmpty());
+  }
+
+  @Test
+  public void getEventsIsSharedUntilChanged() {
+    // the same list is handed out until the schedule changes, and it never changes itself
+    schedule.addEvent(event1);
+    List<Event> before = schedule.getEvents();
+    assertSame("Reading twice should not copy", before, schedule.getEvents());
+    long version = schedule.getVersion();
+    schedule.addEvent(event2);
+    assertEquals("The old list should not see the new event", 1, before.size());
+    assertEquals(2, schedule.getEvents().size());
+    assertTrue("The version should go up", schedule.getVersion() > version);
+    try {
+      before.add(event2);
+      fail("The list should be unmodifiable");
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void listenersSeeChanges() {
+    List<String> changes = new ArrayList<>();
+    schedule.addListener(new IScheduleListener() {
+      @Override
+      public void eventAdded(ISchedule changed, Event event) {
+        changes.add("added " + event.getName());
+      }
+
+      @Override
+      public void eventRemoved(ISchedule changed, Event event) {
+        changes.add("removed " + event.getName());
+      }
+    });
+    schedule.addEvent(event1);
+    schedule.removeEvent(event1);
+    schedule.removeEvent(event1);
+    assertEquals(Arrays.asList("added Test Event 1", "removed Test Event 1"), changes);
+  }
+
+  @Test
+  public void eventsAreFoundAndRemovedById() {
+    schedule.addEvent(event1);
+    schedule.addEvent(event2);
+    assertSame(event2, schedule.getEvent(event2.getId()));
+    assertNull("Unknown IDs are not found", schedule.getEvent(-1));
+    schedule.addEvent(event1);
+    assertEquals("An event is only added once", 2, schedule.getEvents().size());
+
+    assertSame(event1, schedule.removeEvent(event1.getId()));
+    assertNull(schedule.removeEvent(event1.getId()));
+    assertNull(schedule.getEvent(event1.getId()));
+    assertEquals(Arrays.asList(event2), schedule.getEvents());
+    assertTrue(schedule.isAvailable(event1.getStartTime(), event1.getEndTime()));
+  }
 }
\ No newline at end of file
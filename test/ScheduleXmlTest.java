@@ -0,0 +1,146 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import model.Event;
+import model.IScheduleImportListener;
+import model.ScheduleXmlReader;
+import model.ScheduleXmlWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test class for testing the reading and writing of schedule XML files.
+ */
+public class ScheduleXmlTest {
+  private List<Event> events;
+  private List<String> errors;
+  private int progress;
+  private IScheduleImportListener listener;
+
+  @Before
+  public void setUp() {
+    events = new ArrayList<>();
+    errors = new ArrayList<>();
+    progress = 0;
+    listener = new IScheduleImportListener() {
+      @Override
+      public void onEvent(Event event) {
+        events.add(event);
+      }
+
+      @Override
+      public void onEventError(int eventNumber, String message) {
+        errors.add(eventNumber + ": " + message);
+      }
+
+      @Override
+      public void onProgress(int eventsRead) {
+        progress = eventsRead;
+      }
+    };
+  }
+
+  private InputStream xml(String body) {
+    return new ByteArrayInputStream(("<?xml version=\"1.0\"?><schedule id=\"Test\">" + body
+            + "</schedule>").getBytes(StandardCharsets.UTF_8));
+  }
+
+  private String event(String name, String day) {
+    return "<event><name>\"" + name + "\"</name><time><start-day>" + day
+            + "</start-day><start>0900</start><end-day>" + day + "</end-day><end>1030</end>"
+            + "</time><location><online>true</online><place>Zoom</place></location>"
+            + "<users><uid>\"Host\"</uid><uid>Guest</uid></users></event>";
+  }
+
+  @Test
+  public void testReadJohnSchedule() throws Exception {
+    try (InputStream input = new FileInputStream("john.xml")) {
+      assertEquals(2, new ScheduleXmlReader().read(input, listener));
+    }
+    Event first = events.get(0);
+    assertEquals("Quotes are removed from names", "Project Planning Session", first.getName());
+    assertEquals(Arrays.asList("John", "Sarah", "Mike"), first.getInvitees());
+    assertEquals("The host is the first user", "John", first.getHostId());
+    assertEquals(DayOfWeek.MONDAY, first.getStartTime().getDayOfWeek());
+    assertEquals(2, progress);
+  }
+
+  @Test
+  public void testEventsAreDatedAfterToday() throws Exception {
+    LocalDate sunday = LocalDate.of(2024, 4, 28);
+    new ScheduleXmlReader(sunday).read(xml(event("Standup", "Monday")), listener);
+    assertEquals(sunday.plusDays(1), events.get(0).getStartTime().toLocalDate());
+    assertEquals(90, java.time.Duration.between(events.get(0).getStartTime(),
+            events.get(0).getEndTime()).toMinutes());
+    assertTrue(events.get(0).isOnline());
+  }
+
+  @Test
+  public void testBadEventIsSkipped() throws Exception {
+    // The second event has a day that does not exist, the others should still be read
+    int read = new ScheduleXmlReader().read(xml(event("One", "Monday")
+            + event("Two", "Someday") + event("Three", "Friday")), listener);
+    assertEquals(2, read);
+    assertEquals("One", events.get(0).getName());
+    assertEquals("Three", events.get(1).getName());
+    assertEquals(1, errors.size());
+    assertTrue(errors.get(0).startsWith("2:"));
+    assertEquals(3, progress);
+  }
+
+  @Test
+  public void testWriteAndReadBack() throws Exception {
+    try (InputStream input = new FileInputStream("prof.xml")) {
+      new ScheduleXmlReader().read(input, listener);
+    }
+    List<Event> original = new ArrayList<>(events);
+    Path dir = Files.createTempDirectory("schedules");
+    Path file = dir.resolve("prof.xml");
+    new ScheduleXmlWriter().write(file, "Prof. Lucia", original);
+
+    events.clear();
+    try (InputStream input = Files.newInputStream(file)) {
+      new ScheduleXmlReader().read(input, listener);
+    }
+    assertEquals(original.size(), events.size());
+    for (int i = 0; i < original.size(); i++) {
+      Event before = original.get(i);
+      Event after = events.get(i);
+      assertEquals(before.getName(), after.getName());
+      assertEquals(before.getStartTime(), after.getStartTime());
+      assertEquals(before.getEndTime(), after.getEndTime());
+      assertEquals(before.getLocation(), after.getLocation());
+      assertEquals(before.isOnline(), after.isOnline());
+      assertEquals(before.getInvitees(), after.getInvitees());
+    }
+    assertTrue(errors.isEmpty());
+    try (Stream<Path> files = Files.list(dir)) {
+      assertEquals("The temporary file should be gone", 1, files.count());
+    }
+  }
+
+  @Test
+  public void testWriteEmptySchedule() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new ScheduleXmlWriter().write(output, "Nobody", new ArrayList<>());
+    String xml = output.toString("UTF-8");
+    assertTrue(xml.contains("<schedule id=\"Nobody\">"));
+    assertEquals(0, new ScheduleXmlReader().read(
+            new ByteArrayInputStream(output.toByteArray()), listener));
+  }
+}